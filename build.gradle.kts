@@ -25,6 +25,7 @@ plugins {
     alias(libs.plugins.cthingPublishing)
     alias(libs.plugins.cthingVersioning)
     alias(libs.plugins.dependencyAnalysis)
+    alias(libs.plugins.jmh)
     alias(libs.plugins.pluginPublish)
     alias(libs.plugins.spotbugs)
     alias(libs.plugins.versions)
@@ -86,10 +87,53 @@ spotbugs {
     excludeFilter = file("dev/spotbugs/suppressions.xml")
 }
 
+testing {
+    suites {
+        register<JvmTestSuite>("perfTest") {
+            dependencies {
+                implementation(libs.assertJ)
+                implementation(libs.junitApi)
+                implementation(libs.junitParams)
+                implementation(gradleTestKit())
+
+                runtimeOnly(libs.junitEngine)
+                runtimeOnly(libs.junitLauncher)
+            }
+
+            targets.configureEach {
+                testTask.configure {
+                    description = "Measures the configuration and no-op build times of large builds using the plugin."
+                    shouldRunAfter(test)
+                    maxHeapSize = "1g"
+
+                    systemProperty("perfTestSizes", providers.gradleProperty("perfTestSizes").getOrElse("10,100,1000"))
+                    systemProperty("perfTestBaseline",
+                                   file(providers.gradleProperty("perfTestBaseline").getOrElse("src/perfTest/perf-baseline.properties")))
+                    systemProperty("perfTestUpdateBaseline", providers.gradleProperty("perfTestUpdateBaseline").getOrElse("false"))
+                    outputs.upToDateWhen { false }
+                }
+            }
+        }
+    }
+}
+
+gradlePlugin.testSourceSets(sourceSets["test"], sourceSets["perfTest"])
+
 jacoco {
     toolVersion = libs.versions.jacoco.get()
 }
 
+jmh {
+    jmhVersion = libs.versions.jmh
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+
+    val jmhIncludes = providers.gradleProperty("jmhIncludes")
+    if (jmhIncludes.isPresent) {
+        includes = listOf(jmhIncludes.get())
+    }
+}
+
 dependencyAnalysis {
     issues {
         all {
@@ -144,6 +188,14 @@ tasks {
         isEnabled = false
     }
 
+    spotbugsJmh {
+        isEnabled = false
+    }
+
+    named<com.github.spotbugs.snom.SpotBugsTask>("spotbugsPerfTest") {
+        isEnabled = false
+    }
+
     publishPlugins {
         doFirst {
             if (!cthingPublishing.hasGradlePluginPortalCredentials()) {
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the throughput of rendering the constants classes in each output format. The constants mimic those
+ * generated by {@link BuildConstantsTask}: the predefined constants followed by additional constants whose values
+ * cycle through the string, integer, long and boolean types. Run with the GC profiler to measure the allocation
+ * rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstantsWriterBenchmark {
+
+    // Keeps the number of constants per class within the default limit used by the task.
+    private static final int MAX_CONSTANTS = 10_000;
+
+    @Param({ "10", "1000", "50000" })
+    private int numConstants;
+
+    @Param({ "16", "1024" })
+    private int valueLength;
+
+    @Param({ "PUBLIC", "PACKAGE" })
+    private SourceAccess sourceAccess;
+
+    @Param({ "INLINED", "NON_INLINED" })
+    private ConstantsStyle constantsStyle;
+
+    private List<ConstantsClass> constantsClasses;
+    private ByteArrayOutputStream buffer;
+
+    /**
+     * Creates the classes of constants to be rendered.
+     */
+    @Setup
+    public void setup() {
+        final boolean inlined = this.constantsStyle == ConstantsStyle.INLINED;
+        final String padding = "x".repeat(this.valueLength);
+
+        final List<Constant> constants = new ArrayList<>();
+        constants.add(Constant.of("PROJECT_NAME", "benchmarkProject", true));
+        constants.add(Constant.of("PROJECT_VERSION", "1.2.3", inlined));
+        constants.add(Constant.of("PROJECT_GROUP", "org.cthing", true));
+        constants.add(Constant.of("BUILD_TIME", 1718946725000L, inlined));
+        constants.add(Constant.of("BUILD_DATE", "2024-06-21T05:12:05Z", inlined));
+        for (int i = 0; i < this.numConstants; i++) {
+            final Object value = switch (i % 4) {
+                case 0 -> i;
+                case 1 -> i * 1_000_000_000L;
+                case 2 -> i % 3 == 0;
+                default -> String.format("%06d%s", i, padding).substring(0, this.valueLength);
+            };
+            constants.add(Constant.of(String.format("CONSTANT_%06d", i), value, inlined));
+        }
+
+        this.constantsClasses = new ArrayList<>();
+        for (int start = 0; start < constants.size(); start += MAX_CONSTANTS) {
+            final List<Constant> part = constants.subList(start, Math.min(start + MAX_CONSTANTS, constants.size()));
+            final String classname = "org.cthing.benchmark.Constants" + (start == 0 ? "" : "Part" + (start / MAX_CONSTANTS + 1));
+            this.constantsClasses.add(ConstantsClass.of(classname, this.sourceAccess, part, false, List.of()));
+        }
+
+        this.buffer = new ByteArrayOutputStream(1024 * 1024);
+    }
+
+    /**
+     * Renders the constants as Java source files.
+     *
+     * @return Number of bytes rendered.
+     */
+    @Benchmark
+    public int writeSource() {
+        this.buffer.reset();
+        final PrintWriter writer = new PrintWriter(new OutputStreamWriter(this.buffer, StandardCharsets.UTF_8));
+        for (final ConstantsClass constantsClass : this.constantsClasses) {
+            JavaSourceWriter.write(writer, constantsClass);
+        }
+        writer.flush();
+        return this.buffer.size();
+    }
+
+    /**
+     * Renders the constants as Java source files that load the values from resources.
+     *
+     * @return Number of bytes rendered.
+     */
+    @Benchmark
+    public int writeResourceLoader() {
+        this.buffer.reset();
+        final PrintWriter writer = new PrintWriter(new OutputStreamWriter(this.buffer, StandardCharsets.UTF_8));
+        for (final ConstantsClass constantsClass : this.constantsClasses) {
+            JavaSourceWriter.writeResourceLoader(writer, constantsClass);
+        }
+        writer.flush();
+        return this.buffer.size();
+    }
+
+    /**
+     * Renders the values of the constants as properties resources.
+     *
+     * @return Number of bytes rendered.
+     * @throws IOException if there was a problem rendering a resource.
+     */
+    @Benchmark
+    public int writeProperties() throws IOException {
+        this.buffer.reset();
+        for (final ConstantsClass constantsClass : this.constantsClasses) {
+            PropertiesWriter.write(this.buffer, constantsClass);
+        }
+        return this.buffer.size();
+    }
+
+    /**
+     * Renders the constants as class files.
+     *
+     * @return Number of bytes rendered.
+     * @throws IOException if a class cannot be represented in a class file.
+     */
+    @Benchmark
+    public int writeClassFile() throws IOException {
+        int size = 0;
+        for (final ConstantsClass constantsClass : this.constantsClasses) {
+            size += ClassFileWriter.write(constantsClass).length;
+        }
+        return size;
+    }
+}
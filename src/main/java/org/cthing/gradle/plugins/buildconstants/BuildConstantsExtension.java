@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javax.inject.Inject;
+
+import org.gradle.api.NamedDomainObjectContainer;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+
+
+/**
+ * Project extension for configuring the generation of build constants. Constants are always generated for the
+ * main source set. The extension allows constants to be generated for other source sets (e.g. test fixtures or
+ * integration tests), each by its own task named using the Gradle naming scheme (e.g.
+ * generateIntegrationTestBuildConstants). The extension also provides deferred constants shared by all
+ * generation tasks of the project, whose values are resolved once per build regardless of the number of tasks.
+ */
+public abstract class BuildConstantsExtension {
+
+    /**
+     * Name of the extension.
+     */
+    public static final String NAME = "buildConstants";
+
+    private final Consumer<String> registrar;
+    private final Set<String> sourceSetNames = new HashSet<>();
+    private final NamedDomainObjectContainer<DeferredConstant> deferredConstants;
+
+    /**
+     * Constructs the extension.
+     *
+     * @param registrar  Registers the generation of constants for the source set with the specified name
+     */
+    @Inject
+    public BuildConstantsExtension(final Consumer<String> registrar) {
+        this.registrar = registrar;
+        final Property<Duration> deferredConstantTimeout = getDeferredConstantTimeout();
+        deferredConstantTimeout.convention(BuildConstantsTask.DEFAULT_DEFERRED_TIMEOUT);
+        this.deferredConstants = getObjectFactory().domainObjectContainer(DeferredConstant.class);
+        this.deferredConstants.configureEach(constant -> constant.getTimeout().convention(deferredConstantTimeout));
+        this.sourceSetNames.add("main");
+    }
+
+    /**
+     * Obtains the factory used to create the deferred constants container.
+     *
+     * @return Object factory.
+     */
+    @Inject
+    protected abstract ObjectFactory getObjectFactory();
+
+    /**
+     * Generates constants for the specified source sets. The source sets do not need to exist when this method
+     * is called. Constants are generated for a source set once it is created. Specifying a source set for
+     * which constants are already generated, including the main source set, has no effect.
+     *
+     * @param names  Names of the source sets for which constants are generated
+     */
+    public void sourceSets(final String... names) {
+        for (final String name : names) {
+            if (this.sourceSetNames.add(name)) {
+                this.registrar.accept(name);
+            }
+        }
+    }
+
+    /**
+     * Provides the capability to add deferred constants written by all constants generation tasks of the
+     * project. The values are resolved once per build and shared by the tasks, so generating constants for
+     * several source sets does not multiply the cost of resolving them. A deferred constant of a task with the
+     * same name as a shared deferred constant takes precedence. The default timeout of the shared deferred
+     * constants is the {@link #getDeferredConstantTimeout() timeout} of the extension.
+     *
+     * @return Container for the shared deferred constants.
+     * @see BuildConstantsTask#getDeferredConstants()
+     */
+    public NamedDomainObjectContainer<DeferredConstant> getDeferredConstants() {
+        return this.deferredConstants;
+    }
+
+    /**
+     * Obtains the default maximum time allowed to resolve the value of a deferred constant. The timeout applies
+     * to the {@link #getDeferredConstants() shared deferred constants} and is the default of the
+     * {@link BuildConstantsTask#getDeferredConstantTimeout() timeout} of each generation task of the project.
+     * The default is 30 seconds.
+     *
+     * @return Default timeout for resolving deferred constants.
+     */
+    public abstract Property<Duration> getDeferredConstantTimeout();
+}
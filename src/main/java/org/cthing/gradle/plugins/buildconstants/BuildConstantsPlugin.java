@@ -6,14 +6,30 @@
 package org.cthing.gradle.plugins.buildconstants;
 
 import java.io.File;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.Directory;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.api.plugins.JavaPlugin;
 import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.project.IsolatedProject;
 import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
 import org.gradle.api.tasks.TaskProvider;
+import org.gradle.api.tasks.bundling.Jar;
+import org.gradle.util.GradleVersion;
 
 
 /**
@@ -21,6 +37,9 @@ import org.gradle.api.tasks.TaskProvider;
  */
 public class BuildConstantsPlugin implements Plugin<Project> {
 
+    private static final Logger LOGGER = Logging.getLogger(BuildConstantsPlugin.class);
+    private static final GradleVersion ISOLATED_PROJECT_VERSION = GradleVersion.version("8.8");
+
     /**
      * Applies the plugin to the specified project.
      *
@@ -28,47 +47,231 @@ public class BuildConstantsPlugin implements Plugin<Project> {
      */
     @Override
     public void apply(final Project project) {
-        final Project rootProject = project.getRootProject();
+        // Avoid accessing the model of the root project so that the plugin can be used with Isolated Projects.
+        // Only the root project's name and directory are obtained, which are available to all projects. The
+        // build files are located relative to the root project directory.
+        final String rootName;
+        final Directory rootDirectory;
+        if (GradleVersion.current().compareTo(ISOLATED_PROJECT_VERSION) >= 0) {
+            final IsolatedProject rootProject = project.getIsolated().getRootProject();
+            rootName = rootProject.getName();
+            rootDirectory = rootProject.getProjectDirectory();
+        } else {
+            final Project rootProject = project.getRootProject();
+            rootName = rootProject.getName();
+            rootDirectory = rootProject.getLayout().getProjectDirectory();
+        }
+
+        // The group and version of the root project are obtained once per build by the shared service. They are
+        // only available to other projects when Isolated Projects is not enabled. When it is enabled, the group
+        // and version of the project applying the plugin are used. With Isolated Projects, the group and version
+        // are typically set for all projects using the gradle.properties file or a settings script. A warning is
+        // logged if they have not been set for the project, because they are then not those of the root project.
+        final Provider<BuildConstantsService> service = BuildConstantsService.register(project);
+        final boolean subproject = !Project.PATH_SEPARATOR.equals(project.getPath());
+        final boolean isolatedSubproject = subproject && BuildConstantsService.isIsolatedProjectsEnabled(project);
+        final boolean useRootInfo = subproject && !isolatedSubproject;
 
         project.getPluginManager().apply(JavaPlugin.class);
 
-        project.getExtensions().getByType(JavaPluginExtension.class).getSourceSets().getByName("main", sourceSet -> {
-            // Use the Gradle naming scheme for the task name.
-            final String taskName = sourceSet.getTaskName("generate", "BuildConstants");
-
-            // Use the Gradle convention for generated source output directory naming (e.g. AntlrTask).
-            final Provider<Directory> taskOutputDirectory =
-                    project.getLayout()
-                           .getBuildDirectory()
-                           .dir("generated-src/build-constants/" + sourceSet.getName());
-
-            // Create the constants generation task and configure it with all files that contribute to the
-            // build information. That way, if one is changed, the task will regenerate the constants source
-            // file.
-            final TaskProvider<BuildConstantsTask> constantsTask =
-                    project.getTasks().register(taskName, BuildConstantsTask.class, task -> {
-                        task.setDescription(String.format("Generates constants for the %s project build",
-                                                          rootProject.getName()));
-                        task.getProjectName().convention(project.provider(rootProject::getName));
-                        task.getProjectGroup().convention(project.provider(rootProject::getGroup));
-                        task.getProjectVersion().convention(project.provider(rootProject::getVersion));
-                        task.getOutputDirectory().convention(taskOutputDirectory);
-                        task.source(
-                                project.files(
-                                        rootProject.getBuildFile(),
-                                        rootProject.file("gradle.properties"),
-                                        rootProject.file("gradle/libs.versions.toml")
-                                ).filter(File::exists)
-                        );
-                    });
-
-            // Add the generated constants source file to the source set
-            sourceSet.getJava().srcDir(taskOutputDirectory);
-
-            // Generate the constants source file before trying to compile it.
-            project.getTasks()
-                   .named(sourceSet.getCompileJavaTaskName())
-                   .configure(compileTask -> compileTask.dependsOn(constantsTask));
+        final SourceSetContainer sourceSets = project.getExtensions().getByType(JavaPluginExtension.class)
+                                                     .getSourceSets();
+        final Consumer<String> registrar = name -> sourceSets.matching(sourceSet -> sourceSet.getName().equals(name))
+                                                             .all(sourceSet -> registerTask(project, sourceSet, rootName,
+                                                                                            rootDirectory, service,
+                                                                                            useRootInfo,
+                                                                                            isolatedSubproject));
+        final BuildConstantsExtension extension =
+                project.getExtensions().create(BuildConstantsExtension.NAME, BuildConstantsExtension.class, registrar);
+
+        // All generation tasks of the project write the shared deferred constants of the extension and use the
+        // deferred constant timeout of the extension by default.
+        project.getTasks().withType(BuildConstantsTask.class).configureEach(task -> {
+            task.shareDeferredConstants(extension.getDeferredConstants());
+            task.getDeferredConstantTimeout().convention(extension.getDeferredConstantTimeout());
+        });
+
+        registrar.accept(SourceSet.MAIN_SOURCE_SET_NAME);
+    }
+
+    /**
+     * Registers the task generating the constants for the specified source set and adds the generated files to
+     * the source set.
+     *
+     * @param project  Project to which the plugin is applied
+     * @param sourceSet  Source set for which the constants are generated
+     * @param rootName  Name of the root project
+     * @param rootDirectory  Directory of the root project
+     * @param service  Shared build service
+     * @param useRootInfo  {@code true} if the group and version of the root project are used
+     * @param isolatedSubproject  {@code true} if the project is a subproject and Isolated Projects is enabled
+     */
+    private static void registerTask(final Project project, final SourceSet sourceSet, final String rootName,
+                                     final Directory rootDirectory, final Provider<BuildConstantsService> service,
+                                     final boolean useRootInfo, final boolean isolatedSubproject) {
+        // Use the Gradle naming scheme for the task name.
+        final String taskName = sourceSet.getTaskName("generate", "BuildConstants");
+
+        // Use the Gradle convention for generated source output directory naming (e.g. AntlrTask).
+        final Provider<Directory> taskOutputDirectory =
+                project.getLayout()
+                       .getBuildDirectory()
+                       .dir("generated-src/build-constants/" + sourceSet.getName());
+        final Provider<Directory> taskClassesOutputDirectory =
+                project.getLayout()
+                       .getBuildDirectory()
+                       .dir("generated-classes/build-constants/" + sourceSet.getName());
+        final Provider<Directory> taskResourcesOutputDirectory =
+                project.getLayout()
+                       .getBuildDirectory()
+                       .dir("generated-resources/build-constants/" + sourceSet.getName());
+
+        // The runtime classpath is only resolved, without its artifacts, when dependency versions are requested.
+        final ProviderFactory providers = project.getProviders();
+        final Provider<ResolvedComponentResult> dependencyGraph =
+                project.getConfigurations()
+                       .named(sourceSet.getRuntimeClasspathConfigurationName())
+                       .flatMap(configuration -> configuration.getIncoming().getResolutionResult().getRootComponent());
+
+        // Create the constants generation task and configure it with all files that contribute to the
+        // build information. That way, if one is changed, the task will regenerate the constants source
+        // file.
+        final TaskProvider<BuildConstantsTask> constantsTask =
+                project.getTasks().register(taskName, BuildConstantsTask.class, task -> {
+                    task.setDescription(SourceSet.MAIN_SOURCE_SET_NAME.equals(sourceSet.getName())
+                                        ? String.format("Generates constants for the %s project build", rootName)
+                                        : String.format("Generates constants for the %s project build for the %s "
+                                                                + "source set", rootName, sourceSet.getName()));
+                    task.getProjectName().convention(rootName);
+                    task.getProjectGroup().convention(useRootInfo
+                                                      ? service.map(BuildConstantsService::getRootGroup)
+                                                      : ownProjectInfo(project, taskName, "group", project::getGroup,
+                                                                       defaultGroup(project, rootName),
+                                                                       isolatedSubproject));
+                    task.getProjectVersion().convention(useRootInfo
+                                                        ? service.map(BuildConstantsService::getRootVersion)
+                                                        : ownProjectInfo(project, taskName, "version", project::getVersion,
+                                                                         Project.DEFAULT_VERSION, isolatedSubproject));
+                    task.getOutputDirectory().convention(taskOutputDirectory);
+                    task.getClassesOutputDirectory().convention(taskClassesOutputDirectory);
+                    task.getResourcesOutputDirectory().convention(taskResourcesOutputDirectory);
+                    task.getRepositoryDirectory().convention(rootDirectory);
+                    task.getVersionCatalogFile().convention(rootDirectory.file("gradle/libs.versions.toml"));
+                    task.getDependencyGraph().convention(task.getDependencyVersions().flatMap(modules ->
+                            modules.isEmpty() ? providers.<ResolvedComponentResult>provider(() -> null) : dependencyGraph));
+                    task.source(
+                            project.files(
+                                    rootDirectory.file("build.gradle.kts"),
+                                    rootDirectory.file("build.gradle"),
+                                    rootDirectory.file("gradle.properties"),
+                                    rootDirectory.file("gradle/libs.versions.toml")
+                            ).filter(File::exists)
+                    );
+                });
+
+        // Add the generated constants source file to the source set, unless the class files are generated
+        // directly. In that case, the generated source files are only for reference and are not compiled.
+        sourceSet.getJava().srcDir(constantsTask.map(task -> task.getOutputFormat().get() != OutputFormat.CLASS
+                                                             ? task.getOutputDirectory()
+                                                             : List.of()));
+
+        // Add the generated constants resources to the source set when the values of the constants are
+        // loaded from resources or when Native Image configuration is generated.
+        sourceSet.getResources().srcDir(constantsTask.map(task -> task.getOutputFormat().get() == OutputFormat.RESOURCE
+                                                                          || task.getNativeImageMetadata().get()
+                                                                  ? task.getResourcesOutputDirectory()
+                                                                  : List.of()));
+
+        // Add the directly generated class files to the source set's output so that they are included in its
+        // jar and runtime classpath. As with the source directory, the class files directory is only added when
+        // the class files are generated directly.
+        final ConfigurableFileCollection constantsClasses =
+                project.files(constantsTask.map(task -> task.getOutputFormat().get() == OutputFormat.CLASS
+                                                        ? task.getClassesOutputDirectory()
+                                                        : List.of()))
+                       .builtBy(constantsTask);
+        sourceSet.getOutput().dir(Map.of("builtBy", constantsTask), constantsClasses);
+
+        // The code of the source set is compiled against a jar of the generated class files and their reference
+        // source files. The jar is added to the compile only dependencies of the source set rather than to its
+        // compile classpath, because IDEs import the dependencies of a source set from its configurations. That
+        // way, IDEs resolve the constants class as a library, even though its source is not part of the source set.
+        final TaskProvider<Jar> apiJarTask =
+                project.getTasks().register(sourceSet.getTaskName(null, "buildConstantsJar"), Jar.class, jar -> {
+                    jar.setDescription(String.format("Assembles a jar of the generated constants classes for the %s "
+                                                             + "source set", sourceSet.getName()));
+                    jar.from(constantsClasses);
+                    jar.from(constantsTask.map(task -> task.getOutputFormat().get() == OutputFormat.CLASS
+                                                       ? task.getOutputDirectory()
+                                                       : List.of()));
+                    jar.getDestinationDirectory().convention(project.getLayout().getBuildDirectory()
+                                                                    .dir("generated-jars/build-constants/"
+                                                                                 + sourceSet.getName()));
+                    jar.getArchiveFileName().convention("build-constants-" + sourceSet.getName() + ".jar");
+                    jar.setPreserveFileTimestamps(false);
+                    jar.setReproducibleFileOrder(true);
+                });
+        final ConfigurableFileCollection constantsApi =
+                project.files(constantsTask.map(task -> task.getOutputFormat().get() == OutputFormat.CLASS
+                                                        ? apiJarTask.flatMap(Jar::getArchiveFile)
+                                                        : List.of()))
+                       .builtBy(project.provider(() -> constantsTask.get().getOutputFormat().get() == OutputFormat.CLASS
+                                                       ? List.of(apiJarTask)
+                                                       : List.of()));
+        project.getDependencies().add(sourceSet.getCompileOnlyConfigurationName(), constantsApi);
+
+        // Generate the constants source file before trying to compile it.
+        project.getTasks()
+               .named(sourceSet.getCompileJavaTaskName())
+               .configure(compileTask -> compileTask.dependsOn(constantsTask));
+    }
+
+    /**
+     * Obtains the group or version of the project applying the plugin. If the project is a subproject and
+     * Isolated Projects is enabled, a warning is logged, once, when the value has not been set for the project,
+     * because the value is then neither that of the root project nor one chosen by the user.
+     *
+     * @param project  Project to which the plugin is applied
+     * @param taskName  Name of the constants generation task
+     * @param kind  "group" or "version"
+     * @param value  Supplies the group or version of the project
+     * @param defaultValue  Value of the group or version when it has not been set
+     * @param isolatedSubproject  {@code true} if the project is a subproject and Isolated Projects is enabled
+     * @return Provider of the group or version of the project.
+     */
+    private static Provider<Object> ownProjectInfo(final Project project, final String taskName, final String kind,
+                                                   final Supplier<Object> value, final String defaultValue,
+                                                   final boolean isolatedSubproject) {
+        final AtomicBoolean warned = new AtomicBoolean();
+        return project.provider(() -> {
+            final Object info = value.get();
+            if (isolatedSubproject && defaultValue.equals(String.valueOf(info)) && !warned.getAndSet(true)) {
+                LOGGER.warn("The {} of project {} is not set and the {} of the root project is not available with "
+                                    + "Isolated Projects enabled, so the {} constant is \"{}\". Set the {} in the "
+                                    + "gradle.properties file or a settings script, or set the project{} property of "
+                                    + "the {} task.", kind, project.getPath(), kind,
+                            "PROJECT_" + kind.toUpperCase(Locale.ROOT), info, kind,
+                            Character.toUpperCase(kind.charAt(0)) + kind.substring(1), taskName);
+            }
+            return info;
         });
     }
+
+    /**
+     * Obtains the group Gradle assigns to the specified project when its group has not been set. The group of a
+     * subproject defaults to the name of the root project followed by the path of its parent project, with
+     * colons replaced by dots (e.g. "app.libs" for the project :libs:core of the build named "app").
+     *
+     * @param project  Project whose default group is obtained
+     * @param rootName  Name of the root project
+     * @return Default group of the project.
+     */
+    private static String defaultGroup(final Project project, final String rootName) {
+        final String path = project.getPath();
+        final int separator = path.lastIndexOf(':');
+        if (separator <= 0) {
+            return path.equals(":") ? "" : rootName;
+        }
+        return rootName + '.' + path.substring(1, separator).replace(':', '.');
+    }
 }
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.UnsupportedTemporalTypeException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Provides build wide information to all constants generation tasks in a build. The information is determined
+ * once per build and shared by the tasks, so that all projects in a build report the same values. In particular,
+ * the current time is obtained once, when the service is first used, so that all projects using the
+ * {@link BuildTimeStrategy#WALL_CLOCK} strategy report the same build time. Similarly, the state of a Git
+ * repository is read once per build regardless of the number of projects reporting it. The service also collects
+ * the {@link GenerationReport reports} of the tasks executed in the build and logs a summary of them at the end of
+ * the build.
+ */
+public abstract class BuildConstantsService implements BuildService<BuildConstantsService.Parameters>,
+                                                       AutoCloseable {
+
+    /**
+     * Name under which the service is registered.
+     */
+    static final String NAME = "buildConstants";
+
+    private static final Logger LOGGER = Logging.getLogger(BuildConstantsService.class);
+    private static final String ISOLATED_PROJECTS_PROPERTY = "org.gradle.unsafe.isolated-projects";
+
+    private final long currentTime = System.currentTimeMillis();
+    private final Map<BuildTimeKey, Long> buildTimes = new ConcurrentHashMap<>();
+    private final Map<File, Map<String, Object>> gitConstants = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> sharedDeferredConstants = new ConcurrentHashMap<>();
+    private final Map<VersionCatalog.CacheKey, VersionCatalog> versionCatalogs = new ConcurrentHashMap<>();
+    private final Queue<GenerationReport> reports = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Parameters for the service.
+     */
+    public interface Parameters extends BuildServiceParameters {
+        /**
+         * Obtains the group of the root project. The group is not available when Isolated Projects is enabled.
+         *
+         * @return Group of the root project.
+         */
+        Property<String> getRootGroup();
+
+        /**
+         * Obtains the version of the root project. The version is not available when Isolated Projects is
+         * enabled.
+         *
+         * @return Version of the root project.
+         */
+        Property<String> getRootVersion();
+    }
+
+    /**
+     * Key for caching the build time determined using a strategy.
+     *
+     * @param strategy  Strategy for determining the build time
+     * @param granularity  Unit to which the time is truncated for the {@link BuildTimeStrategy#ROUNDED} strategy
+     * @param repositoryDirectory  Directory within the Git repository for the {@link BuildTimeStrategy#LAST_COMMIT}
+     *      strategy
+     */
+    private record BuildTimeKey(BuildTimeStrategy strategy, ChronoUnit granularity,
+                                @Nullable File repositoryDirectory) {
+    }
+
+    /**
+     * Registers the service with the build, if it has not already been registered.
+     *
+     * @param project  Project registering the service
+     * @return Provider for the service.
+     */
+    static Provider<BuildConstantsService> register(final Project project) {
+        return project.getGradle().getSharedServices().registerIfAbsent(NAME, BuildConstantsService.class, spec -> {
+            // The root project's model cannot be accessed from other projects when Isolated Projects is enabled.
+            // The root project is identified by its path so that its model is only obtained when it is allowed.
+            final boolean isRootProject = Project.PATH_SEPARATOR.equals(project.getPath());
+            if (isRootProject || !isIsolatedProjectsEnabled(project)) {
+                final Project rootProject = isRootProject ? project : project.getRootProject();
+                final Parameters parameters = spec.getParameters();
+                parameters.getRootGroup().set(project.provider(() -> rootProject.getGroup().toString()));
+                parameters.getRootVersion().set(project.provider(() -> rootProject.getVersion().toString()));
+            }
+        });
+    }
+
+    /**
+     * Indicates whether the Isolated Projects feature is enabled for the build.
+     *
+     * @param project  Project to which the plugin is applied
+     * @return {@code true} if Isolated Projects is enabled.
+     */
+    static boolean isIsolatedProjectsEnabled(final Project project) {
+        final ProviderFactory providers = project.getProviders();
+        return Boolean.parseBoolean(providers.gradleProperty(ISOLATED_PROJECTS_PROPERTY)
+                                             .orElse(providers.systemProperty(ISOLATED_PROJECTS_PROPERTY))
+                                             .getOrElse("false"));
+    }
+
+    /**
+     * Obtains the group of the root project.
+     *
+     * @return Group of the root project, or {@code null} if it is not available because Isolated Projects is
+     *      enabled.
+     */
+    @Nullable
+    String getRootGroup() {
+        return getParameters().getRootGroup().getOrNull();
+    }
+
+    /**
+     * Obtains the version of the root project.
+     *
+     * @return Version of the root project, or {@code null} if it is not available because Isolated Projects is
+     *      enabled.
+     */
+    @Nullable
+    String getRootVersion() {
+        return getParameters().getRootVersion().getOrNull();
+    }
+
+    /**
+     * Obtains the build time according to the specified strategy. The build time for a strategy is determined
+     * once per build.
+     *
+     * @param strategy  Strategy for determining the build time
+     * @param granularity  Unit to which the time is truncated for the {@link BuildTimeStrategy#ROUNDED} strategy
+     * @param repositoryDirectory  Directory within the Git repository for the {@link BuildTimeStrategy#LAST_COMMIT}
+     *      strategy
+     * @return Build time as the number of milliseconds since the Unix Epoch.
+     */
+    long getBuildTime(final BuildTimeStrategy strategy, final ChronoUnit granularity,
+                      @Nullable final File repositoryDirectory) {
+        return this.buildTimes.computeIfAbsent(new BuildTimeKey(strategy, granularity, repositoryDirectory),
+                                               this::determineBuildTime);
+    }
+
+    /**
+     * Obtains constants describing the state of the Git repository containing the specified directory. The state
+     * of a repository is read once per build. The following constants are provided:
+     * <ul>
+     *     <li>GIT_BRANCH - Name of the checked out branch, or "HEAD" if HEAD is detached</li>
+     *     <li>GIT_COMMIT - Hexadecimal identifier of the HEAD commit</li>
+     *     <li>GIT_COMMIT_TIME - Committer time of the HEAD commit in milliseconds since the Unix Epoch</li>
+     *     <li>GIT_DESCRIBE - Description of the HEAD commit relative to the closest tag, as produced by
+     *         {@code git describe --tags --always}</li>
+     *     <li>GIT_DIRTY - Whether there are uncommitted changes to tracked files</li>
+     * </ul>
+     * If the directory is not in a Git repository or the repository has no commits, the string constants are
+     * empty, the commit time is zero and the repository is not considered dirty.
+     *
+     * @param repositoryDirectory  Directory within the Git repository
+     * @return Map of constant names to their values.
+     */
+    Map<String, Object> getGitConstants(@Nullable final File repositoryDirectory) {
+        if (repositoryDirectory == null) {
+            return createGitConstants("", "", 0L, "", false);
+        }
+        return this.gitConstants.computeIfAbsent(repositoryDirectory, BuildConstantsService::determineGitConstants);
+    }
+
+    /**
+     * Obtains the versions and libraries of the specified version catalog file. A file is read once per build
+     * for each version of its content, as identified by its size and modification time, so that the generation
+     * tasks of all projects share the result.
+     *
+     * @param file  Version catalog file
+     * @return Versions and libraries in the catalog.
+     */
+    VersionCatalog getVersionCatalog(final File file) {
+        final VersionCatalog.CacheKey key = VersionCatalog.CacheKey.of(file.toPath());
+        if (key == null) {
+            return VersionCatalog.read(file.toPath());
+        }
+        return this.versionCatalogs.computeIfAbsent(key, k -> VersionCatalog.read(k.path()));
+    }
+
+    /**
+     * Obtains the values of the deferred constants shared by the generation tasks of a project. The values are
+     * resolved once per build by the first task requesting them.
+     *
+     * @param projectPath  Path of the project whose shared deferred constants are obtained
+     * @param resolver  Resolves the values of the shared deferred constants
+     * @return Map of constant names to their values.
+     */
+    Map<String, Object> getSharedDeferredConstants(final String projectPath,
+                                                   final Supplier<Map<String, Object>> resolver) {
+        return this.sharedDeferredConstants.computeIfAbsent(projectPath, path -> resolver.get());
+    }
+
+    /**
+     * Records the report of an execution of a constants generation task.
+     *
+     * @param report  Report to record
+     */
+    void recordReport(final GenerationReport report) {
+        this.reports.add(report);
+    }
+
+    /**
+     * Logs a summary of the reports of the tasks executed in the build, so that the cost of generating the
+     * constants can be seen for the build as a whole.
+     */
+    @Override
+    public void close() {
+        if (this.reports.isEmpty()) {
+            return;
+        }
+        int constantCount = 0;
+        int unchangedCount = 0;
+        long bytesWritten = 0;
+        long totalMillis = 0;
+        for (final GenerationReport report : this.reports) {
+            constantCount += report.constantCount();
+            bytesWritten += report.bytesWritten();
+            totalMillis += report.inputResolutionMillis() + report.generationMillis();
+            if (report.unchanged()) {
+                unchangedCount++;
+            }
+        }
+        LOGGER.info("Build constants generated by {} tasks ({} unchanged): {} constants, {} bytes written, {} ms",
+                    this.reports.size(), unchangedCount, constantCount, bytesWritten, totalMillis);
+    }
+
+    /**
+     * Reads the state of the Git repository containing the specified directory.
+     *
+     * @param repositoryDirectory  Directory within the Git repository
+     * @return Map of constant names to their values.
+     */
+    private static Map<String, Object> determineGitConstants(final File repositoryDirectory) {
+        try {
+            final GitRepository repository = GitRepository.find(repositoryDirectory);
+            final String head = repository == null ? null : repository.resolveHead();
+            if (repository == null || head == null) {
+                LOGGER.info("No Git commit found for {}, Git constants are empty", repositoryDirectory);
+                return createGitConstants("", "", 0L, "", false);
+            }
+
+            final String headRef = repository.readHeadRef();
+            final String branch;
+            if (headRef == null) {
+                branch = "HEAD";
+            } else if (headRef.startsWith("refs/heads/")) {
+                branch = headRef.substring("refs/heads/".length());
+            } else {
+                branch = headRef;
+            }
+            return createGitConstants(branch, head, repository.readCommit(head).commitTime(),
+                                      repository.describe(head), repository.isDirty(head));
+        } catch (final IOException ex) {
+            throw new GradleException("Could not read the state of the Git repository", ex);
+        }
+    }
+
+    private static Map<String, Object> createGitConstants(final String branch, final String commit,
+                                                          final long commitTime, final String describe,
+                                                          final boolean dirty) {
+        return Map.of("GIT_BRANCH", branch,
+                      "GIT_COMMIT", commit,
+                      "GIT_COMMIT_TIME", commitTime,
+                      "GIT_DESCRIBE", describe,
+                      "GIT_DIRTY", dirty);
+    }
+
+    /**
+     * Determines the build time according to the specified strategy.
+     *
+     * @param key  Strategy and its parameters
+     * @return Build time as the number of milliseconds since the Unix Epoch.
+     */
+    private long determineBuildTime(final BuildTimeKey key) {
+        return switch (key.strategy()) {
+            case WALL_CLOCK -> this.currentTime;
+            case ROUNDED -> {
+                try {
+                    yield Instant.ofEpochMilli(this.currentTime).truncatedTo(key.granularity()).toEpochMilli();
+                } catch (final UnsupportedTemporalTypeException ex) {
+                    throw new GradleException("Unsupported build time granularity " + key.granularity().name(), ex);
+                }
+            }
+            case SOURCE_DATE_EPOCH -> {
+                final String epoch = System.getenv("SOURCE_DATE_EPOCH");
+                if (epoch == null || epoch.isBlank()) {
+                    LOGGER.info("SOURCE_DATE_EPOCH is not set, using the current time as the build time");
+                    yield this.currentTime;
+                }
+                try {
+                    yield Long.parseLong(epoch.trim()) * 1000L;
+                } catch (final NumberFormatException ex) {
+                    throw new GradleException("SOURCE_DATE_EPOCH is not a valid number of seconds: " + epoch, ex);
+                }
+            }
+            case LAST_COMMIT -> {
+                final File repoDir = key.repositoryDirectory();
+                try {
+                    final GitRepository repository = repoDir == null ? null : GitRepository.find(repoDir);
+                    final String head = repository == null ? null : repository.resolveHead();
+                    if (repository == null || head == null) {
+                        LOGGER.info("No Git commit found for {}, using the current time as the build time", repoDir);
+                        yield this.currentTime;
+                    }
+                    yield repository.readCommit(head).commitTime();
+                } catch (final IOException ex) {
+                    throw new GradleException("Could not read the last commit time from the Git repository", ex);
+                }
+            }
+        };
+    }
+}
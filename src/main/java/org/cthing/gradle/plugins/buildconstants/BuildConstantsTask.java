@@ -5,44 +5,244 @@
 
 package org.cthing.gradle.plugins.buildconstants;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import java.util.TimeZone;
 
+import javax.inject.Inject;
+
 import org.gradle.api.GradleException;
+import org.gradle.api.NamedDomainObjectContainer;
 import org.gradle.api.Project;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.FileTree;
+import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.MapProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.SourceTask;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.api.tasks.TaskExecutionException;
+import org.gradle.work.NormalizeLineEndings;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+import org.jspecify.annotations.Nullable;
 
 
 /**
- * Performs reading of the build information and generation of the build constants class.
+ * Performs reading of the build information and generation of the build constants class. The task is cacheable
+ * and its inputs are independent of the location of the project so that the generated class can be reused from
+ * the build cache across machines that check out the project to different paths.
  */
+@CacheableTask
 public abstract class BuildConstantsTask extends SourceTask {
 
+    /**
+     * Default maximum time allowed to resolve the value of a deferred constant.
+     */
+    static final Duration DEFAULT_DEFERRED_TIMEOUT = Duration.ofSeconds(30);
+
     private static final Logger LOGGER = Logging.getLogger(BuildConstantsTask.class);
+    private static final Set<String> STABLE_CONSTANTS = Set.of("PROJECT_NAME", "PROJECT_GROUP");
+
+    // Number of constants per class that keeps the generated code well within the class file limits on the
+    // size of the constant pool (65535 entries) and the size of a method (65535 bytes). Each constant
+    // assigned in a static initializer requires approximately 6 bytes of code and 5 constant pool entries.
+    // Loading a constant from a resource requires approximately 13 bytes of code and each case of the lookup
+    // method requires approximately 37 bytes of code.
+    private static final int MAX_CONSTANTS = 10_000;
+    private static final int MAX_RESOURCE_CONSTANTS = 4_000;
+    private static final int MAX_LOOKUP_CONSTANTS = 1_500;
+
+    // The container is only used to configure the task. The configured constants are captured by the list
+    // property, which, unlike the container, can be stored in the configuration cache.
+    private final transient NamedDomainObjectContainer<DeferredConstant> deferredConstants;
+    private final ListProperty<DeferredConstant> deferredConstantsList;
+    private final ListProperty<DeferredConstant> sharedDeferredConstantsList;
+    private final String projectPath;
+
+    @Nullable
+    private transient Map<String, Object> resolvedDeferredConstants;
+    private transient long deferredResolutionNanos;
 
     public BuildConstantsTask() {
         setGroup("Generate Constants");
 
         getSourceAccess().convention(SourceAccess.PUBLIC);
-        getBuildTime().convention(System.currentTimeMillis());
+        getTrackBuildFiles().convention(true);
+        getConstantsStyle().convention(ConstantsStyle.INLINED);
+        getConstantGroups().convention(Map.of());
+        getOutputFormat().convention(OutputFormat.SOURCE);
+        getLookupMethods().convention(false);
+        getMaxConstantsPerClass().convention(getOutputFormat().zip(getLookupMethods(), (format, lookup) -> {
+            if (lookup) {
+                return MAX_LOOKUP_CONSTANTS;
+            }
+            return format == OutputFormat.RESOURCE ? MAX_RESOURCE_CONSTANTS : MAX_CONSTANTS;
+        }));
+        getBuildTimeStrategy().convention(BuildTimeStrategy.WALL_CLOCK);
+        getBuildTimeGranularity().convention(ChronoUnit.HOURS);
+
+        // The build time is obtained from the shared service so that it is determined once per build and all
+        // projects report the same build time.
+        final Property<BuildTimeStrategy> strategy = getBuildTimeStrategy();
+        final Property<ChronoUnit> granularity = getBuildTimeGranularity();
+        final DirectoryProperty repositoryDirectory = getRepositoryDirectory();
+        final Provider<BuildConstantsService> service = BuildConstantsService.register(getProject());
+        usesService(service);
+        getBuildConstantsService().convention(service);
+        getBuildTime().convention(getBuildConstantsService().map(buildService -> buildService.getBuildTime(
+                strategy.get(), granularity.get(), repositoryDirectory.getAsFile().getOrNull())));
+        getBuildTime().finalizeValueOnRead();
+
+        // The Git state is read when the task's inputs are fingerprinted, so that a change to the repository
+        // (e.g. a new commit) makes the task out of date.
+        final Property<Boolean> includeGitConstants = getIncludeGitConstants();
+        includeGitConstants.convention(false);
+        getGitConstants().convention(getBuildConstantsService().zip(includeGitConstants, (buildService, include) ->
+                include ? buildService.getGitConstants(repositoryDirectory.getAsFile().getOrNull()) : Map.of()));
+        getGitConstants().finalizeValueOnRead();
+
+        final Property<Duration> deferredConstantTimeout = getDeferredConstantTimeout();
+        deferredConstantTimeout.convention(DEFAULT_DEFERRED_TIMEOUT);
+        getDeferredConstantsParallelism().convention(Runtime.getRuntime().availableProcessors());
+        this.deferredConstants = getObjectFactory().domainObjectContainer(DeferredConstant.class);
+        this.deferredConstants.configureEach(constant -> constant.getTimeout().convention(deferredConstantTimeout));
+        final NamedDomainObjectContainer<DeferredConstant> container = this.deferredConstants;
+        this.deferredConstantsList = getObjectFactory().listProperty(DeferredConstant.class);
+        this.deferredConstantsList.set(getProject().provider(() -> List.copyOf(container)));
+        this.sharedDeferredConstantsList = getObjectFactory().listProperty(DeferredConstant.class);
+        this.projectPath = getProject().getPath();
+
+        getNativeImageMetadata().convention(false);
+        getIncludeVersionCatalog().convention(false);
+        getVersionCatalogLibraries().convention(Set.of());
+
+        // The dependency graph is only traversed when the task's inputs are fingerprinted. The plugin only
+        // provides the graph when dependency versions are requested, so that the configuration is not resolved
+        // otherwise.
+        final SetProperty<String> dependencyVersions = getDependencyVersions();
+        dependencyVersions.convention(Set.of());
+        getResolvedDependencyVersions().convention(getDependencyGraph().map(root -> DependencyVersions.collect(
+                root, dependencyVersions.get())).orElse(Map.of()));
+        getResolvedDependencyVersions().finalizeValueOnRead();
+
+        getDigestAlgorithm().convention("SHA-256");
+        getDigestCacheDirectory().convention(getProject().getLayout().getBuildDirectory()
+                                                         .dir("tmp/" + getName() + "/digests"));
+        getReportFile().convention(getProject().getLayout().getBuildDirectory()
+                                               .file("reports/build-constants/" + getName() + ".json"));
+    }
+
+    /**
+     * Obtains the service providing build wide information shared by all constants generation tasks in the
+     * build.
+     *
+     * @return Shared build service.
+     */
+    @Internal
+    public abstract Property<BuildConstantsService> getBuildConstantsService();
+
+    /**
+     * Obtains the executor used to write the constants classes in parallel.
+     *
+     * @return Worker executor.
+     */
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
+    /**
+     * Obtains the factory used to create the empty source when the build files are not tracked.
+     *
+     * @return Object factory.
+     */
+    @Inject
+    protected abstract ObjectFactory getObjectFactory();
+
+    /**
+     * Obtains the build files configured as the source of the task. The files that are inputs to the task are
+     * provided by {@link #getBuildFiles()}.
+     *
+     * @return Build files contributing to the build information.
+     */
+    @Override
+    @Internal
+    public FileTree getSource() {
+        return super.getSource();
     }
 
+    /**
+     * Obtains the build files which, when changed, cause the constants class to be regenerated. The files are
+     * fingerprinted by their path relative to the project and with line endings normalized so that the task
+     * can be loaded from the build cache regardless of the location of the project or the platform on which
+     * the files were checked out. When the {@link #getTrackBuildFiles() build files are not tracked}, there are
+     * no build files.
+     *
+     * @return Build files contributing to the build information.
+     */
+    @InputFiles
+    @IgnoreEmptyDirectories
+    @NormalizeLineEndings
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public FileTree getBuildFiles() {
+        return getTrackBuildFiles().get() ? getSource() : getObjectFactory().fileCollection().getAsFileTree();
+    }
+
+    /**
+     * Indicates whether the build files are inputs to the task, so that any change to them causes the constants
+     * to be regenerated. When disabled, only the values written to the constants classes (e.g. the project
+     * version and the additional constants) are inputs to the task, so changes to the build files that do not
+     * affect those values (e.g. comments or unrelated dependency versions) leave the task up-to-date. Note that
+     * build files are then not tracked even if they are explicitly added to the source. The default is
+     * {@code true}.
+     *
+     * @return {@code true} if the build files are inputs to the task.
+     */
+    @Internal
+    public abstract Property<Boolean> getTrackBuildFiles();
+
     /**
      * Obtains the fully qualified name for the generated class (e.g. org.cthing.myapp.PropertyConstants).
      *
@@ -93,19 +293,206 @@ public abstract class BuildConstantsTask extends SourceTask {
 
     /**
      * Obtains the time the project was built as the number of milliseconds since the Unix Epoch.
-     * The default is the current time.
+     * The default is determined by the {@link #getBuildTimeStrategy() build time strategy}.
      *
      * @return Milliseconds since the Unix Epoch.
      */
     @Input
     public abstract Property<Long> getBuildTime();
 
+    /**
+     * Obtains the strategy used to determine the default build time. The default is
+     * {@link BuildTimeStrategy#WALL_CLOCK}, which results in the task always being out of date. Choose one
+     * of the other strategies to allow the task to be up-to-date or loaded from the build cache.
+     *
+     * @return Strategy for determining the default build time.
+     */
+    @Internal
+    public abstract Property<BuildTimeStrategy> getBuildTimeStrategy();
+
+    /**
+     * Obtains the unit to which the build time is truncated when using the {@link BuildTimeStrategy#ROUNDED}
+     * strategy. The unit must not be larger than {@link ChronoUnit#DAYS}. The default is {@link ChronoUnit#HOURS}.
+     *
+     * @return Build time granularity.
+     */
+    @Internal
+    public abstract Property<ChronoUnit> getBuildTimeGranularity();
+
+    /**
+     * Obtains the directory from which the Git repository is located when using the
+     * {@link BuildTimeStrategy#LAST_COMMIT} strategy or the {@link #getIncludeGitConstants() Git constants}.
+     * The directory and its ancestors are searched for the
+     * repository. The default is the root project directory.
+     *
+     * @return Directory within the Git repository.
+     */
+    @Internal
+    public abstract DirectoryProperty getRepositoryDirectory();
+
+    /**
+     * Indicates whether constants describing the state of the Git repository containing the project are
+     * generated. When enabled, the following constants are generated:
+     * <ul>
+     *     <li>GIT_BRANCH - Name of the checked out branch, or "HEAD" if HEAD is detached</li>
+     *     <li>GIT_COMMIT - Hexadecimal identifier of the HEAD commit</li>
+     *     <li>GIT_COMMIT_TIME - Committer time of the HEAD commit in milliseconds since the Unix Epoch</li>
+     *     <li>GIT_DESCRIBE - Description of the HEAD commit relative to the closest tag, as produced by
+     *         {@code git describe --tags --always} (e.g. 1.2.0-14-g2414721)</li>
+     *     <li>GIT_DIRTY - Whether there are uncommitted changes to tracked files</li>
+     * </ul>
+     * The repository is read directly, without running {@code git}, once per build. Only repositories using the
+     * SHA-1 object format are supported. The build fails for a repository using the SHA-256 object format. If the
+     * project is not in a Git repository, the string constants are empty, the commit time is zero and the dirty
+     * flag is {@code false}. The Git constants are not stable. The default is {@code false}.
+     *
+     * @return {@code true} if the Git constants are generated.
+     */
+    @Internal
+    public abstract Property<Boolean> getIncludeGitConstants();
+
+    /**
+     * Obtains the constants describing the state of the Git repository. The default is determined from the
+     * repository when {@link #getIncludeGitConstants() Git constants} are enabled and is empty otherwise. The
+     * constants are written sorted by name following the predefined constants.
+     *
+     * @return Map of Git constant names to their values.
+     */
+    @Input
+    public abstract MapProperty<String, Object> getGitConstants();
+
+    /**
+     * Obtains the files for which digest constants are generated. A constant is generated for each file whose
+     * value is the hexadecimal digest of the content of the file. The name of the constant is "DIGEST_" followed
+     * by the path of the file, relative to the root of its file tree, in upper case and with all characters
+     * other than letters and digits replaced by underscores (e.g. "db/schema.sql" results in the constant
+     * "DIGEST_DB_SCHEMA_SQL"). Files are hashed in parallel and a file is only hashed again when its size,
+     * modification time, change time or file key (e.g. inode) changes, or when it was modified at about the time
+     * it was last hashed. The digest constants are not stable.
+     *
+     * @return Files for which digest constants are generated.
+     */
+    @InputFiles
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getDigestFiles();
+
+    /**
+     * Obtains the name of the message digest algorithm used for the {@link #getDigestFiles() digest constants}.
+     * Any algorithm supported by {@link java.security.MessageDigest} can be used. The default is "SHA-256".
+     *
+     * @return Name of the digest algorithm.
+     */
+    @Input
+    public abstract Property<String> getDigestAlgorithm();
+
+    /**
+     * Obtains the directory in which the digests of the {@link #getDigestFiles() digest files} are cached
+     * between builds. The default is a directory within the task's temporary directory.
+     *
+     * @return Digest cache directory.
+     */
+    @LocalState
+    public abstract DirectoryProperty getDigestCacheDirectory();
+
+    /**
+     * Indicates whether constants are generated from the {@link #getVersionCatalogFile() version catalog}. When
+     * enabled, a constant is generated for each entry in the {@code [versions]} table of the catalog, whose name
+     * is "VERSION_" followed by the alias of the version in upper case and with all characters other than letters
+     * and digits replaced by underscores (e.g. the version "junit-jupiter" results in the constant
+     * "VERSION_JUNIT_JUPITER"). A constant is also generated for each of the
+     * {@link #getVersionCatalogLibraries() selected libraries}. The catalog is read when the task executes, not
+     * when the build is configured, and its content is an input to the task. The version catalog constants are
+     * not stable. The default is {@code false}.
+     *
+     * @return {@code true} if constants are generated from the version catalog.
+     */
+    @Internal
+    public abstract Property<Boolean> getIncludeVersionCatalog();
+
+    /**
+     * Obtains the version catalog file from which constants are generated when
+     * {@link #getIncludeVersionCatalog() enabled}. The default is "gradle/libs.versions.toml" in the root
+     * project directory.
+     *
+     * @return Version catalog file.
+     */
+    @Internal
+    public abstract RegularFileProperty getVersionCatalogFile();
+
+    /**
+     * Obtains the version catalog file as an input to the task when constants are generated from the version
+     * catalog. Only the content of the file is an input, so the task remains up-to-date when the file is
+     * touched or moved without its content changing.
+     *
+     * @return Version catalog file if constants are generated from it, otherwise an empty collection.
+     */
+    @InputFiles
+    @NormalizeLineEndings
+    @PathSensitive(PathSensitivity.NONE)
+    public FileCollection getVersionCatalogInput() {
+        return getIncludeVersionCatalog().get() ? getObjectFactory().fileCollection().from(getVersionCatalogFile())
+                                                : getObjectFactory().fileCollection();
+    }
+
+    /**
+     * Obtains the aliases of the libraries in the {@link #getVersionCatalogFile() version catalog} for which
+     * constants are generated. The name of each constant is "LIBRARY_" followed by the alias of the library in
+     * upper case and with all characters other than letters and digits replaced by underscores. The value is
+     * the coordinates of the library (e.g. "org.junit.jupiter:junit-jupiter-api:5.10.2"), with the version
+     * omitted if the library does not specify one. As in Gradle, dashes, underscores and dots in aliases are
+     * equivalent. The default is no libraries.
+     *
+     * @return Aliases of the libraries for which constants are generated.
+     */
+    @Input
+    public abstract SetProperty<String> getVersionCatalogLibraries();
+
+    /**
+     * Obtains the modules, in the form group:name, for whose resolved versions constants are generated. The name
+     * of each constant is "DEPENDENCY_" followed by the name of the module in upper case and with all characters
+     * other than letters and digits replaced by underscores (e.g. "io.netty:netty-handler" results in the
+     * constant "DEPENDENCY_NETTY_HANDLER"). When several modules have the same name, their constant names also
+     * contain the group (e.g. "DEPENDENCY_COM_FASTERXML_JACKSON_CORE_JACKSON_CORE" and
+     * "DEPENDENCY_TOOLS_JACKSON_CORE_JACKSON_CORE"). The value is the version selected by dependency resolution, which
+     * may differ from the declared version (e.g. when a transitive dependency requires a higher version). The
+     * versions are obtained from the {@link #getDependencyGraph() dependency graph} and each module must be in
+     * the graph. The dependency version constants are not stable. The default is no modules.
+     *
+     * @return Modules for whose versions constants are generated.
+     */
+    @Input
+    public abstract SetProperty<String> getDependencyVersions();
+
+    /**
+     * Obtains the root component of the resolved dependency graph from which the
+     * {@link #getDependencyVersions() dependency versions} are obtained. By default, the plugin provides the
+     * graph of the runtime classpath of the source set for which the constants are generated, but only when
+     * dependency versions are requested. The graph is resolved lazily, when the inputs of the task are
+     * determined, and no artifacts are downloaded.
+     *
+     * @return Root component of the dependency graph.
+     */
+    @Internal
+    public abstract Property<ResolvedComponentResult> getDependencyGraph();
+
+    /**
+     * Obtains the resolved versions of the {@link #getDependencyVersions() requested modules}. Only these
+     * versions, and not the artifacts or the rest of the dependency graph, are an input to the task, so the task
+     * is only out-of-date when the version of a requested module changes.
+     *
+     * @return Modules found in the dependency graph mapped to their resolved versions.
+     */
+    @Input
+    public abstract MapProperty<String, String> getResolvedDependencyVersions();
+
     /**
      * Provides the capability to add custom constants to the source file. The constants will be written sorted
      * by name (i.e. key). Integer, long and boolean values are written as their respective types. All other types
      * are written using the value of their {@link Object#toString()}. If a value is {@code null}, the constant will
      * not be written. The following constant names <b>must not be used</b> for custom constants: "PROJECT_NAME",
-     * "PROJECT_VERSION", "PROJECT_GROUP", "BUILD_TIME" and "BUILD_DATE".
+     * "PROJECT_VERSION", "PROJECT_GROUP", "BUILD_TIME" and "BUILD_DATE". When Git, version catalog or dependency
+     * version constants are enabled, their names must not be used either.
      *
      * @return Map for custom constants and their values.
      */
@@ -114,81 +501,770 @@ public abstract class BuildConstantsTask extends SourceTask {
     public abstract MapProperty<String, Object> getAdditionalConstants();
 
     /**
-     * Generates the build constants class.
+     * Provides the capability to add custom constants whose values are expensive to determine (e.g. querying
+     * the version of a tool or computing a checksum). The values of the deferred constants are resolved
+     * concurrently, each within its timeout, when the task executes. The time taken to resolve each value is
+     * logged at the info level. Deferred constants are written together with the
+     * {@link #getAdditionalConstants() additional constants}, sorted by name, and their names must not be the
+     * same as those of the additional constants. The deferred constants of the task are written in addition to
+     * the {@link BuildConstantsExtension#getDeferredConstants() deferred constants shared} by all generation tasks
+     * of the project. A deferred constant of the task takes precedence over a shared deferred constant with the
+     * same name. When the configuration cache is used, only values provided by value sources are resolved when
+     * the task executes (see {@link DeferredConstant#getValue()}).
+     *
+     * @return Container for the deferred constants.
+     */
+    @Internal
+    public NamedDomainObjectContainer<DeferredConstant> getDeferredConstants() {
+        return this.deferredConstants;
+    }
+
+    /**
+     * Obtains the default maximum time allowed to resolve the value of a {@link #getDeferredConstants() deferred
+     * constant}. The default is the {@link BuildConstantsExtension#getDeferredConstantTimeout() timeout} of the
+     * project's {@code buildConstants} extension, which is 30 seconds unless configured.
+     *
+     * @return Default timeout for resolving deferred constants.
+     */
+    @Internal
+    public abstract Property<Duration> getDeferredConstantTimeout();
+
+    /**
+     * Obtains the maximum number of {@link #getDeferredConstants() deferred constant} values resolved
+     * concurrently. The default is the number of available processors.
+     *
+     * @return Maximum number of values resolved concurrently.
+     */
+    @Internal
+    public abstract Property<Integer> getDeferredConstantsParallelism();
+
+    /**
+     * Obtains the resolved values of the {@link #getDeferredConstants() deferred constants} of the task and of
+     * the deferred constants shared by the generation tasks of the project. The values of the task are resolved
+     * once, when first requested. The shared values are resolved once per build.
+     *
+     * @return Map of deferred constant names to their values, sorted by name.
+     */
+    @Input
+    public Map<String, Object> getResolvedDeferredConstants() {
+        if (this.resolvedDeferredConstants == null) {
+            final long start = System.nanoTime();
+            final int parallelism = getDeferredConstantsParallelism().get();
+            final List<DeferredConstant> shared = this.sharedDeferredConstantsList.get();
+            final Map<String, Object> values = new TreeMap<>();
+            if (!shared.isEmpty()) {
+                values.putAll(getBuildConstantsService().get().getSharedDeferredConstants(this.projectPath, () ->
+                        DeferredConstantResolver.resolve(shared, parallelism)));
+            }
+            values.putAll(DeferredConstantResolver.resolve(this.deferredConstantsList.get(), parallelism));
+            this.resolvedDeferredConstants = values;
+            this.deferredResolutionNanos = System.nanoTime() - start;
+        }
+        return this.resolvedDeferredConstants;
+    }
+
+    /**
+     * Writes the specified deferred constants, which are shared with the other generation tasks of the project,
+     * in addition to the deferred constants of the task.
+     *
+     * @param sharedConstants  Deferred constants shared by the generation tasks of the project
+     */
+    void shareDeferredConstants(final NamedDomainObjectContainer<DeferredConstant> sharedConstants) {
+        this.sharedDeferredConstantsList.set(getProject().provider(() -> List.copyOf(sharedConstants)));
+    }
+
+    /**
+     * Obtains the style of the generated constants. The default is {@link ConstantsStyle#INLINED}. The style
+     * has no effect when using the {@link OutputFormat#RESOURCE} format because the values of all constants are
+     * then loaded from the resource.
+     *
+     * @return Style of the generated constants.
+     */
+    @Input
+    public abstract Property<ConstantsStyle> getConstantsStyle();
+
+    /**
+     * Obtains the names of additional constants whose values rarely change. When the
+     * {@link ConstantsStyle#NON_INLINED} style is used, stable constants are still generated as compile time
+     * constants. When a {@link #getVolatileClassname() volatile class} is specified, stable constants are written
+     * to the main class. The "PROJECT_NAME" and "PROJECT_GROUP" constants are always considered stable.
+     *
+     * @return Names of stable additional constants.
+     */
+    @Input
+    public abstract SetProperty<String> getStableConstants();
+
+    /**
+     * Obtains the fully qualified name of a separate class for the volatile constants (e.g.
+     * org.cthing.myapp.VolatileConstants). When specified, constants other than the stable constants are written
+     * to this class, so that a change to a volatile value does not change the class containing the stable
+     * constants. Constants assigned to a {@link #getConstantGroups() group} are written to that group's class.
+     *
+     * @return Fully qualified class name for the volatile constants.
+     */
+    @Optional
+    @Input
+    public abstract Property<String> getVolatileClassname();
+
+    /**
+     * Provides the capability to write constants to additional classes. The keys of the map are the fully
+     * qualified names of the additional classes and the values are the names of the constants written to each
+     * class. A constant may only be assigned to one class. Constants not assigned to a group are written to the
+     * {@link #getVolatileClassname() volatile class} or the {@link #getClassname() main class}.
+     *
+     * @return Map of fully qualified class names to the names of the constants written to the class.
+     */
+    @Input
+    public abstract MapProperty<String, List<String>> getConstantGroups();
+
+    /**
+     * Obtains the form in which the constants classes are generated. The default is {@link OutputFormat#SOURCE}.
+     *
+     * @return Format of the generated constants classes.
+     */
+    @Input
+    public abstract Property<OutputFormat> getOutputFormat();
+
+    /**
+     * Obtains the location on the filesystem for the generated class files when using the
+     * {@link OutputFormat#CLASS} format.
+     *
+     * @return Class file output directory.
+     */
+    @OutputDirectory
+    public abstract DirectoryProperty getClassesOutputDirectory();
+
+    /**
+     * Obtains the location on the filesystem for the generated properties resources when using the
+     * {@link OutputFormat#RESOURCE} format.
+     *
+     * @return Resource output directory.
+     */
+    @OutputDirectory
+    public abstract DirectoryProperty getResourcesOutputDirectory();
+
+    /**
+     * Indicates whether methods to look up the constants by name are generated in each constants class. When
+     * enabled, each class contains a static {@code get(String)} method, which returns the value of the constant
+     * with the specified name or {@code null} if there is no such constant, and a static {@code asMap()} method,
+     * which returns an unmodifiable map of the constant names to their values. The methods do not use reflection.
+     * The map is created when {@code asMap()} is first called, which decodes all
+     * {@linkplain #getCompressionThreshold() compressed} constants of the class, whereas {@code get(String)} only
+     * decodes the requested constant. Lookup methods cannot be generated when using the {@link OutputFormat#CLASS}
+     * format. The default is {@code false}.
+     *
+     * @return {@code true} if lookup methods are generated.
+     */
+    @Input
+    public abstract Property<Boolean> getLookupMethods();
+
+    /**
+     * Obtains the maximum number of constants written to a single class. The JVM limits the size of a class,
+     * so when more constants are assigned to a class, they are split into several classes. The first class has
+     * the name of the class to which the constants are assigned and the remaining classes have that name followed
+     * by "Part" and a sequence number starting at 2 (e.g. ConstantsPart2). The constants are split in the order
+     * they are written, so the split is the same for every build with the same constants. When lookup methods
+     * are generated, the lookup methods of the first class cover the constants of all its parts. The default
+     * depends on the output format and whether lookup methods are generated, and is chosen to remain within the
+     * JVM limits.
+     *
+     * @return Maximum number of constants in a class.
+     */
+    @Input
+    public abstract Property<Integer> getMaxConstantsPerClass();
+
+    /**
+     * Indicates whether GraalVM Native Image configuration is generated for the constants classes. When enabled,
+     * a native-image.properties file is written to the resources of the source set under
+     * "META-INF/native-image/org.cthing.build-constants/" followed by the name of the main constants class. The
+     * file specifies that all generated classes, including their nested classes, are initialized at image build
+     * time, so that the values of the constants are stored in the image heap and cost nothing at startup. When
+     * using the {@link OutputFormat#RESOURCE} format, a resource-config.json file is also written to include the
+     * properties resources in the image. The generated classes do not use reflection, so no reflection
+     * configuration is needed. The default is {@code false}.
+     *
+     * @return {@code true} if Native Image configuration is generated.
+     */
+    @Input
+    public abstract Property<Boolean> getNativeImageMetadata();
+
+    /**
+     * Obtains the minimum size, in bytes of UTF-8 encoded text, of string values that are written compressed.
+     * A compressed constant is accessed by calling a static method with the name of the constant (e.g.
+     * {@code Constants.LICENSE()}) rather than as a field. Its value is deflated and split into several string
+     * literals, so values larger than the class file limit of 65535 bytes for a string can be generated. The
+     * value is decoded when the method is first called, so rarely used values (e.g. embedded configuration or
+     * license text) do not slow down loading of the class or occupy the heap until they are needed. When
+     * {@linkplain #getLookupMethods() lookup methods} are generated, the first call to {@code asMap()} decodes all
+     * compressed constants of the class. Compressed constants can only be generated using the
+     * {@link OutputFormat#SOURCE} format. By default, no values are compressed.
+     *
+     * @return Minimum size of compressed string values.
+     */
+    @Optional
+    @Input
+    public abstract Property<Integer> getCompressionThreshold();
+
+    /**
+     * Obtains the file to which a report describing the execution of the task is written. The report is a JSON
+     * object containing the reason the task was executed, the time taken to determine the constants and to
+     * generate the classes, the number of constants and classes generated, the number of files and bytes
+     * written, and whether the generated files were unchanged. The report is written each time the task is
+     * executed and is not an output of the task, so it is not written when the task is up-to-date or loaded
+     * from the build cache. The default is "reports/build-constants/" followed by the task name and ".json" in
+     * the build directory.
+     *
+     * @return Report file.
+     */
+    @Internal
+    public abstract RegularFileProperty getReportFile();
+
+    /**
+     * Generates the build constants classes.
      */
     @TaskAction
     public void generateConstants() {
-        final Provider<String> pathname = getClassname().map(cname -> cname.replace('.', '/') + ".java");
-        final File classFile = getOutputDirectory().file(pathname).get().getAsFile();
-        final File parentFile = classFile.getParentFile();
-        if (!parentFile.exists() && !parentFile.mkdirs()) {
-            throw new GradleException("Could not create directories " + parentFile);
+        final OutputFormat outputFormat = getOutputFormat().get();
+        if (outputFormat == OutputFormat.CLASS && getLookupMethods().get()) {
+            throw new GradleException("Lookup methods cannot be generated using the " + outputFormat
+                                              + " output format");
+        }
+        final Integer compressionThreshold = getCompressionThreshold().getOrNull();
+        if (compressionThreshold != null && outputFormat != OutputFormat.SOURCE) {
+            throw new GradleException("Compressed constants cannot be generated using the " + outputFormat
+                                              + " output format");
         }
 
-        final String cname = getClassname().get();
-        final int pos = cname.lastIndexOf('.');
-        assert pos != -1;
-        final String packageName = cname.substring(0, pos);
-        final String className = cname.substring(pos + 1);
-
-        try (PrintWriter writer = new PrintWriter(classFile, StandardCharsets.UTF_8)) {
-            LOGGER.info("Writing constants class {}.{}", packageName, className);
-            writeConstants(writer, packageName, className);
+        final long inputStart = System.nanoTime();
+        final List<Constant> constants = compressConstants(createConstants(computeFileDigests()),
+                                                           compressionThreshold);
+        final List<ConstantsClass> constantsClasses = createClasses(constants);
+        final long generationStart = System.nanoTime();
+        final File sourceDir = getOutputDirectory().get().getAsFile();
+        final File classesDir = getClassesOutputDirectory().get().getAsFile();
+        final File resourcesDir = getResourcesOutputDirectory().get().getAsFile();
+        final Set<File> sourceFiles = new HashSet<>();
+        final List<File> outputFiles = new ArrayList<>();
+        for (final ConstantsClass constantsClass : constantsClasses) {
+            sourceFiles.add(new File(sourceDir, constantsClass.getPath() + ".java"));
+            outputFiles.add(new File(sourceDir, constantsClass.getPath() + ".java"));
+            outputFiles.add(new File(classesDir, constantsClass.getPath() + ".class"));
+            outputFiles.add(new File(resourcesDir, constantsClass.getPath() + ".properties"));
+        }
+        final File nativeImageDir = new File(resourcesDir, NativeImageWriter.getDirectory(getClassname().get()));
+        final File nativeImageProperties = new File(nativeImageDir, "native-image.properties");
+        final File nativeImageResources = new File(nativeImageDir, "resource-config.json");
+        outputFiles.add(nativeImageProperties);
+        outputFiles.add(nativeImageResources);
+
+        // Each class is written by a separate work item so that the classes of this task, and those of other
+        // tasks, are written in parallel. Unchanged files are left untouched by the work items, so whether any
+        // work was done is determined by comparing the state of the output files before and after writing.
+        final List<FileState> outputStatesBefore = getFileStates(outputFiles);
+        final WorkQueue workQueue = getWorkerExecutor().noIsolation();
+        for (final ConstantsClass constantsClass : constantsClasses) {
+            workQueue.submit(GenerateConstantsAction.class, parameters -> {
+                parameters.getConstantsClass().set(constantsClass);
+                parameters.getOutputFormat().set(outputFormat);
+                parameters.getOutputDirectory().set(sourceDir);
+                parameters.getClassesOutputDirectory().set(classesDir);
+                parameters.getResourcesOutputDirectory().set(resourcesDir);
+            });
+        }
+        workQueue.await();
+
+        try {
+            writeNativeImageMetadata(constantsClasses, outputFormat, nativeImageDir, nativeImageProperties,
+                                     nativeImageResources);
+        } catch (final IOException ex) {
+            throw new TaskExecutionException(this, ex);
+        }
+
+        final List<FileState> outputStatesAfter = getFileStates(outputFiles);
+        int filesWritten = 0;
+        long bytesWritten = 0;
+        for (int i = 0; i < outputStatesAfter.size(); i++) {
+            final FileState state = outputStatesAfter.get(i);
+            if (!state.equals(outputStatesBefore.get(i))) {
+                filesWritten++;
+                bytesWritten += state.size();
+            }
+        }
+
+        try {
+            for (final String stalePath : deleteStaleFiles(sourceDir, sourceFiles)) {
+                Files.deleteIfExists(new File(classesDir, stalePath + ".class").toPath());
+                Files.deleteIfExists(new File(resourcesDir, stalePath + ".properties").toPath());
+                filesWritten++;
+            }
+        } catch (final IOException ex) {
+            throw new TaskExecutionException(this, ex);
+        }
+        final long generationEnd = System.nanoTime();
+
+        if (filesWritten == 0) {
+            setDidWork(false);
+        }
+
+        final Path reportFile = getReportFile().get().getAsFile().toPath();
+        final String constantsDigest = digestClasses(constantsClasses, outputFormat);
+        final GenerationReport report = new GenerationReport(
+                getPath(),
+                GenerationReport.determineReason(reportFile, constantsDigest),
+                TimeUnit.NANOSECONDS.toMillis(generationStart - inputStart + this.deferredResolutionNanos),
+                TimeUnit.NANOSECONDS.toMillis(generationEnd - generationStart),
+                constants.size(),
+                constantsClasses.size(),
+                filesWritten,
+                bytesWritten,
+                filesWritten == 0,
+                constantsDigest);
+        LOGGER.info("Generated {} constants in {} classes ({}), wrote {} files ({} bytes)", report.constantCount(),
+                    report.classCount(), report.reason(), report.filesWritten(), report.bytesWritten());
+        getBuildConstantsService().get().recordReport(report);
+        try {
+            report.write(reportFile);
         } catch (final IOException ex) {
             throw new TaskExecutionException(this, ex);
         }
     }
 
     /**
-     * Performs the work of writing the Java class file containing the build information constants.
+     * Writes the GraalVM Native Image configuration for the generated classes if it is
+     * {@link #getNativeImageMetadata() enabled}. Configuration files that are no longer needed, including those
+     * written for a previous main class name, are deleted.
+     *
+     * @param constantsClasses  Generated classes
+     * @param outputFormat  Form in which the classes are generated
+     * @param nativeImageDir  Directory for the configuration of the classes
+     * @param propertiesFile  File specifying the arguments for the native-image tool
+     * @param resourceConfigFile  File specifying the resources included in the image
+     * @throws IOException if there was a problem writing or deleting a file.
+     */
+    private void writeNativeImageMetadata(final List<ConstantsClass> constantsClasses, final OutputFormat outputFormat,
+                                          final File nativeImageDir, final File propertiesFile,
+                                          final File resourceConfigFile) throws IOException {
+        final boolean enabled = getNativeImageMetadata().get();
+        final String cname = getClassname().get();
+        if (enabled) {
+            GenerateConstantsAction.writeGeneratedFile(propertiesFile, "native image properties", cname,
+                                                       out -> NativeImageWriter.writeProperties(out, constantsClasses));
+        } else {
+            Files.deleteIfExists(propertiesFile.toPath());
+        }
+        if (enabled && outputFormat == OutputFormat.RESOURCE) {
+            GenerateConstantsAction.writeGeneratedFile(resourceConfigFile, "native image resource configuration",
+                                                       cname,
+                                                       out -> NativeImageWriter.writeResourceConfig(out, constantsClasses));
+        } else {
+            Files.deleteIfExists(resourceConfigFile.toPath());
+        }
+
+        final Path baseDir = getResourcesOutputDirectory().get().getAsFile().toPath()
+                                                          .resolve(NativeImageWriter.BASE_DIRECTORY);
+        if (Files.isDirectory(baseDir)) {
+            final Path currentDir = nativeImageDir.toPath();
+            final List<Path> staleDirs;
+            try (Stream<Path> dirs = Files.list(baseDir)) {
+                staleDirs = dirs.filter(dir -> !enabled || !dir.equals(currentDir)).toList();
+            }
+            for (final Path staleDir : staleDirs) {
+                try (Stream<Path> paths = Files.walk(staleDir)) {
+                    for (final Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                        Files.delete(path);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes a digest of the generated classes, including their constants, for detecting whether the constants
+     * changed since the previous execution of the task.
+     *
+     * @param constantsClasses  Generated classes
+     * @param outputFormat  Form in which the classes are generated
+     * @return Hexadecimal digest of the classes.
+     */
+    private static String digestClasses(final List<ConstantsClass> constantsClasses, final OutputFormat outputFormat) {
+        final MessageDigest digest = ComputeDigestAction.createDigest("SHA-256");
+        digest.update(outputFormat.name().getBytes(StandardCharsets.UTF_8));
+        for (final ConstantsClass constantsClass : constantsClasses) {
+            digest.update(constantsClass.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * State of a file for detecting whether it has been written or deleted.
+     *
+     * @param fileKey  Key uniquely identifying the file (e.g. inode), or {@code null} if not available
+     * @param lastModified  Last modified time of the file, or {@code null} if the file does not exist
+     * @param size  Size of the file in bytes, or zero if the file does not exist
+     */
+    private record FileState(@Nullable Object fileKey, @Nullable FileTime lastModified, long size) {
+    }
+
+    /**
+     * Obtains the state of the specified files for detecting whether they have been written or deleted. Files
+     * are replaced rather than modified in place, so the state consists of the file key (e.g. inode), where
+     * available, the last modified time and the size of each file.
      *
-     * @param writer  Writes the file
-     * @param packageName  The Java package containing the class
-     * @param className  Name of the top level class (not qualified by the package name)
+     * @param files  Files whose state is obtained
+     * @return State of the files.
      */
-    private void writeConstants(final PrintWriter writer, final String packageName, final String className) {
-        final String modifier = getSourceAccess().get() == SourceAccess.PUBLIC ? "public " : "";
+    private static List<FileState> getFileStates(final List<File> files) {
+        final List<FileState> states = new ArrayList<>();
+        for (final File file : files) {
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+                states.add(new FileState(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size()));
+            } catch (final IOException ex) {
+                states.add(new FileState(null, null, 0));
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Distributes the constants to the classes in which they are written. Each class is written with the
+     * constants in the order they are specified. Classes with more than the maximum number of constants are
+     * split into several parts.
+     *
+     * @param constants  All constants to be written
+     * @return Classes to be written. The main class is always first.
+     */
+    private List<ConstantsClass> createClasses(final List<Constant> constants) {
+        final String mainClassname = getClassname().get();
+        final String volatileClassname = getVolatileClassname().getOrNull();
+        final Map<String, List<String>> groups = getConstantGroups().get();
+        final Set<String> stableConstants = getStableConstants().get();
+        final SourceAccess access = getSourceAccess().get();
+        final boolean lookup = getLookupMethods().get();
+        final int maxConstants = getMaxConstantsPerClass().get();
+        if (maxConstants < 1) {
+            throw new GradleException("The maximum number of constants per class must be at least 1");
+        }
+
+        final Map<String, String> assignments = new HashMap<>();
+        groups.forEach((groupClassname, names) -> {
+            if (groupClassname.equals(mainClassname) || groupClassname.equals(volatileClassname)) {
+                throw new GradleException("Constant group class " + groupClassname
+                                                  + " must not be the same as the main or volatile class");
+            }
+            for (final String name : names) {
+                final String previous = assignments.put(name, groupClassname);
+                if (previous != null && !previous.equals(groupClassname)) {
+                    throw new GradleException("Constant " + name + " is assigned to both " + previous + " and "
+                                                      + groupClassname);
+                }
+            }
+        });
+        if (mainClassname.equals(volatileClassname)) {
+            throw new GradleException("The volatile class must not be the same as the main class");
+        }
+
+        final Map<String, List<Constant>> classConstants = new LinkedHashMap<>();
+        classConstants.put(mainClassname, new ArrayList<>());
+        if (volatileClassname != null) {
+            classConstants.put(volatileClassname, new ArrayList<>());
+        }
+        groups.keySet().stream().sorted().forEach(groupClassname -> classConstants.put(groupClassname,
+                                                                                       new ArrayList<>()));
+
+        for (final Constant constant : constants) {
+            String classname = assignments.get(constant.name());
+            if (classname == null) {
+                classname = volatileClassname == null || isStable(constant.name(), stableConstants)
+                            ? mainClassname
+                            : volatileClassname;
+            }
+            classConstants.get(classname).add(constant);
+        }
+
+        final List<ConstantsClass> classes = new ArrayList<>();
+        final Set<String> classnames = new HashSet<>(classConstants.keySet());
+        classConstants.forEach((classname, constantsList) -> {
+            // Split the constants into parts that fit within the class file limits.
+            final int numParts = Math.max(1, (constantsList.size() + maxConstants - 1) / maxConstants);
+            final List<String> partClassnames = new ArrayList<>();
+            for (int part = 2; part <= numParts; part++) {
+                final String partClassname = classname + "Part" + part;
+                if (!classnames.add(partClassname)) {
+                    throw new GradleException("Class " + partClassname + " for part of the constants of "
+                                                      + classname + " conflicts with another constants class");
+                }
+                partClassnames.add(partClassname);
+            }
+
+            for (int part = 1; part <= numParts; part++) {
+                final List<Constant> partConstants =
+                        constantsList.subList((part - 1) * maxConstants,
+                                              Math.min(part * maxConstants, constantsList.size()));
+                classes.add(part == 1
+                            ? ConstantsClass.of(classname, access, partConstants, lookup, partClassnames)
+                            : ConstantsClass.of(partClassnames.get(part - 2), access, partConstants, lookup,
+                                                List.of()));
+            }
+        });
+        return classes;
+    }
+
+    /**
+     * Indicates whether the specified constant is considered stable (i.e. its value rarely changes).
+     *
+     * @param name  Name of the constant
+     * @param stableConstants  Names of the additional constants specified as stable
+     * @return {@code true} if the constant is stable.
+     */
+    private static boolean isStable(final String name, final Set<String> stableConstants) {
+        return STABLE_CONSTANTS.contains(name) || stableConstants.contains(name);
+    }
+
+    /**
+     * Creates the constants to be written in the order they are to be written. The predefined constants are
+     * followed by the Git constants, the digest constants, the version catalog constants, the dependency version
+     * constants and the additional constants, each sorted by name.
+     *
+     * @param fileDigests  Digest constant names and their values
+     * @return Constants to be written.
+     */
+    private List<Constant> createConstants(final Map<String, String> fileDigests) {
+        final boolean inlineAll = getConstantsStyle().get() == ConstantsStyle.INLINED;
         final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
         dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
 
-        writer.format("""
-                      //
-                      // DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
-                      //
+        final List<Constant> constants = new ArrayList<>();
+        constants.add(Constant.of("PROJECT_NAME", getProjectName().get(), true));
+        constants.add(Constant.of("PROJECT_VERSION", getProjectVersion().get().toString(), inlineAll));
+        constants.add(Constant.of("PROJECT_GROUP", getProjectGroup().get().toString(), true));
+        constants.add(Constant.of("BUILD_TIME", getBuildTime().get(), inlineAll));
+        constants.add(Constant.of("BUILD_DATE", dateFormat.format(new Date(getBuildTime().get())), inlineAll));
+
+        final Map<String, Object> gitConstants = new TreeMap<>(getGitConstants().get());
+        gitConstants.forEach((key, value) -> constants.add(Constant.of(key, value, inlineAll)));
+        fileDigests.forEach((key, value) -> constants.add(Constant.of(key, value, inlineAll)));
+        createVersionCatalogConstants().forEach((key, value) -> constants.add(Constant.of(key, value, inlineAll)));
+        createDependencyVersionConstants().forEach((key, value) -> constants.add(Constant.of(key, value, inlineAll)));
 
-                      package %s;
+        final Set<String> stableConstants = getStableConstants().get();
+        final Map<String, Object> additionalConstants = new TreeMap<>(getAdditionalConstants().getOrElse(Map.of()));
+        getResolvedDeferredConstants().forEach((key, value) -> {
+            if (additionalConstants.get(key) != null) {
+                throw new GradleException("Constant " + key + " is both an additional and a deferred constant");
+            }
+            additionalConstants.put(key, value);
+        });
+        additionalConstants.forEach((key, value) -> {
+            if (value != null) {
+                constants.add(Constant.of(key, value, inlineAll || isStable(key, stableConstants)));
+            }
+        });
 
-                      @SuppressWarnings("all")
-                      %sfinal class %s {
+        final Set<String> names = new HashSet<>();
+        for (final Constant constant : constants) {
+            if (!names.add(constant.name())) {
+                throw new GradleException("Constant " + constant.name() + " is defined more than once");
+            }
+        }
 
-                      """, packageName, modifier, className);
+        return constants;
+    }
 
-        writer.format("    %sstatic final String PROJECT_NAME = \"%s\";%n", modifier, getProjectName().get());
-        writer.format("    %sstatic final String PROJECT_VERSION = \"%s\";%n", modifier, getProjectVersion().get());
-        writer.format("    %sstatic final String PROJECT_GROUP = \"%s\";%n", modifier, getProjectGroup().get());
-        writer.format("    %sstatic final long BUILD_TIME = %dL;%n", modifier, getBuildTime().get());
-        writer.format("    %sstatic final String BUILD_DATE = \"%s\";%n", modifier,
-                      dateFormat.format(new Date(getBuildTime().get())));
+    /**
+     * Creates the constants for the versions and selected libraries of the version catalog, if enabled.
+     *
+     * @return Map of version catalog constant names to their values, with the version constants sorted by name
+     *      followed by the library constants sorted by name.
+     */
+    private Map<String, String> createVersionCatalogConstants() {
+        if (!getIncludeVersionCatalog().get()) {
+            return Map.of();
+        }
 
-        getAdditionalConstants().keySet().get().stream().sorted().forEach(key -> {
-            final Object value = getAdditionalConstants().getting(key).getOrNull();
-            if (value != null) {
-                if (value instanceof Integer v) {
-                    writer.format("    %sstatic final int %s = %d;%n", modifier, key, v);
-                } else if (value instanceof Long v) {
-                    writer.format("    %sstatic final long %s = %dL;%n", modifier, key, v);
-                } else if (value instanceof Boolean v) {
-                    writer.format("    %sstatic final boolean %s = %b;%n", modifier, key, v);
-                } else {
-                    writer.format("    %sstatic final String %s = \"%s\";%n", modifier, key, value);
+        final File catalogFile = getVersionCatalogFile().get().getAsFile();
+        final VersionCatalog catalog = getBuildConstantsService().get().getVersionCatalog(catalogFile);
+        final Map<String, String> constants = new LinkedHashMap<>();
+        catalog.versions().forEach((alias, version) -> constants.put("VERSION_" + VersionCatalog.toConstantName(alias),
+                                                                     version));
+
+        final Map<String, String> libraries = new TreeMap<>();
+        catalog.libraries().forEach((alias, coordinates) -> libraries.put(VersionCatalog.normalizeAlias(alias),
+                                                                          coordinates));
+        final Map<String, String> libraryConstants = new TreeMap<>();
+        for (final String alias : getVersionCatalogLibraries().get()) {
+            final String coordinates = libraries.get(VersionCatalog.normalizeAlias(alias));
+            if (coordinates == null) {
+                throw new GradleException("Library " + alias + " not found in version catalog " + catalogFile);
+            }
+            libraryConstants.put("LIBRARY_" + VersionCatalog.toConstantName(alias), coordinates);
+        }
+        constants.putAll(libraryConstants);
+        return constants;
+    }
+
+    /**
+     * Creates the constants for the resolved versions of the requested dependencies.
+     *
+     * @return Map of dependency version constant names to their values, sorted by name.
+     */
+    private Map<String, String> createDependencyVersionConstants() {
+        final Map<String, String> versions = getResolvedDependencyVersions().get();
+        final Map<String, String> constants = new TreeMap<>();
+        DependencyVersions.toConstantNames(getDependencyVersions().get()).forEach((module, name) -> {
+            final String version = versions.get(module);
+            if (version == null) {
+                throw new GradleException("Dependency " + module + " not found in the dependency graph of " + getPath());
+            }
+            constants.put(name, version);
+        });
+        return constants;
+    }
+
+    /**
+     * Replaces the string constants whose values are at least the specified size with compressed constants.
+     *
+     * @param constants  Constants to be written
+     * @param threshold  Minimum size of compressed values in bytes of UTF-8 encoded text, or {@code null} if no
+     *      values are compressed
+     * @return Constants to be written.
+     */
+    private static List<Constant> compressConstants(final List<Constant> constants,
+                                                    @Nullable final Integer threshold) {
+        if (threshold == null) {
+            return constants;
+        }
+        if (threshold < 1) {
+            throw new GradleException("The compression threshold must be at least 1");
+        }
+        return constants.stream()
+                        .map(constant -> constant.type() == Constant.Type.STRING
+                                         && constant.value().toString().getBytes(StandardCharsets.UTF_8).length >= threshold
+                                         ? constant.compress()
+                                         : constant)
+                        .toList();
+    }
+
+    /**
+     * Computes the digests of the {@link #getDigestFiles() digest files}. Each file is hashed by a separate work
+     * item so that the files are hashed in parallel. The work items record the digests in the digest cache,
+     * which allows unchanged files to be skipped in subsequent executions. Gradle's incremental task inputs are
+     * not used because any change to another input of the task (e.g. the build time) causes a non-incremental
+     * execution, which would require all files to be hashed again, and because Gradle deletes the outputs of an
+     * incremental task before a non-incremental execution, so unchanged generated files could not be left
+     * untouched. Instead, a cache entry is only used if the file's state, including its change time, matches
+     * the entry and the file was not modified at about the time the entry was written (see
+     * {@link ComputeDigestAction}). Cache entries for files that are no longer digested are deleted.
+     *
+     * @return Map of digest constant names to the digests of the corresponding files, sorted by name.
+     */
+    private Map<String, String> computeFileDigests() {
+        final String algorithm = getDigestAlgorithm().get();
+        ComputeDigestAction.createDigest(algorithm);
+
+        final Map<String, File> files = new TreeMap<>();
+        getDigestFiles().getAsFileTree().visit(details -> {
+            if (!details.isDirectory()) {
+                final String name = "DIGEST_" + details.getRelativePath().getPathString()
+                                                       .toUpperCase(Locale.ROOT)
+                                                       .replaceAll("[^A-Z0-9]", "_");
+                final File previous = files.put(name, details.getFile());
+                if (previous != null) {
+                    throw new GradleException("Digest files " + previous + " and " + details.getFile()
+                                                      + " both result in the constant " + name);
                 }
             }
         });
 
-        writer.format("""
+        // The cache entry for a file is named using the digest of the file's absolute path.
+        final Path cacheDir = getDigestCacheDirectory().get().getAsFile().toPath();
+        final Map<String, Path> cacheFiles = new TreeMap<>();
+        final MessageDigest pathDigest = ComputeDigestAction.createDigest("SHA-256");
+        final WorkQueue workQueue = getWorkerExecutor().noIsolation();
+        files.forEach((name, file) -> {
+            final byte[] path = file.getAbsolutePath().getBytes(StandardCharsets.UTF_8);
+            final Path cacheFile = cacheDir.resolve(HexFormat.of().formatHex(pathDigest.digest(path)));
+            cacheFiles.put(name, cacheFile);
+            workQueue.submit(ComputeDigestAction.class, parameters -> {
+                parameters.getFile().set(file);
+                parameters.getAlgorithm().set(algorithm);
+                parameters.getCacheFile().set(cacheFile.toFile());
+            });
+        });
+        workQueue.await();
+
+        final Map<String, String> digests = new TreeMap<>();
+        cacheFiles.forEach((name, cacheFile) -> {
+            final String digest = ComputeDigestAction.readDigest(cacheFile);
+            if (digest == null) {
+                throw new GradleException("Could not read the digest of " + files.get(name));
+            }
+            digests.put(name, digest);
+        });
 
-                          private %s() { }
-                      }
-                      """, className);
+        if (Files.isDirectory(cacheDir)) {
+            final Set<Path> currentEntries = new HashSet<>(cacheFiles.values());
+            try (Stream<Path> entries = Files.list(cacheDir)) {
+                for (final Path staleEntry : entries.filter(entry -> !currentEntries.contains(entry)).toList()) {
+                    Files.delete(staleEntry);
+                }
+            } catch (final IOException ex) {
+                throw new TaskExecutionException(this, ex);
+            }
+        }
+        return digests;
+    }
+
+    /**
+     * Deletes constants source files from a previous execution of the task that were not generated by the current
+     * execution (e.g. because a constant group was removed). Only files containing the generated file header are
+     * deleted so that other files in the output directory are not affected.
+     *
+     * @param outputDir  Directory containing the generated files
+     * @param generatedFiles  Files generated by the current execution
+     * @return Paths of the deleted files relative to the output directory and without the file extension.
+     * @throws IOException if there was a problem deleting a file.
+     */
+    private static List<String> deleteStaleFiles(final File outputDir, final Set<File> generatedFiles)
+            throws IOException {
+        if (!outputDir.isDirectory()) {
+            return List.of();
+        }
+
+        final List<Path> staleFiles;
+        try (Stream<Path> paths = Files.walk(outputDir.toPath())) {
+            staleFiles = paths.filter(path -> !generatedFiles.contains(path.toFile()))
+                              .filter(BuildConstantsTask::isGeneratedFile)
+                              .toList();
+        }
+
+        final List<String> stalePaths = new ArrayList<>();
+        for (final Path staleFile : staleFiles) {
+            LOGGER.info("Deleting stale constants file {}", staleFile);
+            Files.delete(staleFile);
+
+            final String relativePath = outputDir.toPath().relativize(staleFile).toString().replace(File.separatorChar, '/');
+            stalePaths.add(relativePath.substring(0, relativePath.length() - ".java".length()));
+        }
+        return stalePaths;
+    }
+
+    /**
+     * Indicates whether the specified file was generated by this plugin.
+     *
+     * @param path  File to test
+     * @return {@code true} if the file is a generated source file.
+     */
+    private static boolean isGeneratedFile(final Path path) {
+        if (!Files.isRegularFile(path) || !path.toString().endsWith(".java")) {
+            return false;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            final String header = reader.readLine();
+            return header != null && header.startsWith(JavaSourceWriter.GENERATED_HEADER);
+        } catch (final IOException ex) {
+            return false;
+        }
     }
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+/**
+ * Specifies how the default build time is determined. Strategies other than {@link #WALL_CLOCK} produce the same
+ * build time for repeated builds, which allows the constants generation task and the tasks that depend on it to be
+ * up-to-date or loaded from the build cache.
+ */
+public enum BuildTimeStrategy {
+
+    /**
+     * Uses the current time. This is the default strategy.
+     */
+    WALL_CLOCK,
+
+    /**
+     * Uses the current time truncated to the build time granularity (e.g. the start of the current hour).
+     */
+    ROUNDED,
+
+    /**
+     * Uses the time specified by the {@code SOURCE_DATE_EPOCH} environment variable, as defined by the
+     * <a href="https://reproducible-builds.org/specs/source-date-epoch/">Reproducible Builds</a> project.
+     * If the environment variable is not set, the current time is used.
+     */
+    SOURCE_DATE_EPOCH,
+
+    /**
+     * Uses the committer time of the last commit in the Git repository containing the project. If the project is
+     * not in a Git repository, the current time is used.
+     */
+    LAST_COMMIT,
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Writes the Java class file for a class of constants without compiling source code. The class file is
+ * equivalent to the class produced by compiling the source written by {@link JavaSourceWriter}. Class files are
+ * written in the Java 8 format so that they can be used by any Java 8 or newer runtime.
+ */
+final class ClassFileWriter {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int MAJOR_VERSION = 52;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final int ICONST_0 = 0x03;
+    private static final int LCONST_0 = 0x09;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC = 0x12;
+    private static final int LDC_W = 0x13;
+    private static final int LDC2_W = 0x14;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int RETURN = 0xb1;
+    private static final int PUTSTATIC = 0xb3;
+    private static final int INVOKESPECIAL = 0xb7;
+
+    private static final String OBJECT_CLASS = "java/lang/Object";
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(this.poolBytes);
+    private final Map<String, Integer> poolIndexes = new HashMap<>();
+    private int poolCount = 1;
+
+    private ClassFileWriter() {
+    }
+
+    /**
+     * Creates the class file for the specified class.
+     *
+     * @param constantsClass  Class to write
+     * @return Content of the class file.
+     * @throws IOException if the class cannot be represented in a class file (e.g. a string constant is too long).
+     */
+    static byte[] write(final ConstantsClass constantsClass) throws IOException {
+        return new ClassFileWriter().writeClass(constantsClass);
+    }
+
+    private byte[] writeClass(final ConstantsClass constantsClass) throws IOException {
+        final boolean isPublic = constantsClass.access() == SourceAccess.PUBLIC;
+        final String internalName = constantsClass.getPath();
+
+        final int thisClass = classRef(internalName);
+        final int superClass = classRef(OBJECT_CLASS);
+        final int codeAttribute = utf8("Code");
+
+        // Fields
+        final ByteArrayOutputStream fieldBytes = new ByteArrayOutputStream();
+        final DataOutputStream fields = new DataOutputStream(fieldBytes);
+        final List<Constant> initializedConstants = new ArrayList<>();
+        for (final Constant constant : constantsClass.constants()) {
+            fields.writeShort((isPublic ? ACC_PUBLIC : 0) | ACC_STATIC | ACC_FINAL);
+            fields.writeShort(utf8(constant.name()));
+            fields.writeShort(utf8(descriptor(constant.type())));
+            if (constant.inlined()) {
+                fields.writeShort(1);
+                fields.writeShort(utf8("ConstantValue"));
+                fields.writeInt(2);
+                fields.writeShort(valueRef(constant));
+            } else {
+                fields.writeShort(0);
+                initializedConstants.add(constant);
+            }
+        }
+
+        // Methods
+        final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+        final DataOutputStream methods = new DataOutputStream(methodBytes);
+
+        final ByteArrayOutputStream constructorCode = new ByteArrayOutputStream();
+        constructorCode.write(ALOAD_0);
+        constructorCode.write(INVOKESPECIAL);
+        writeShort(constructorCode, memberRef(CONSTANT_METHODREF, OBJECT_CLASS, "<init>", "()V"));
+        constructorCode.write(RETURN);
+        writeMethod(methods, ACC_PRIVATE, "<init>", codeAttribute, 1, 1, constructorCode.toByteArray());
+
+        if (!initializedConstants.isEmpty()) {
+            final ByteArrayOutputStream initializerCode = new ByteArrayOutputStream();
+            for (final Constant constant : initializedConstants) {
+                writeLoadValue(initializerCode, constant);
+                initializerCode.write(PUTSTATIC);
+                writeShort(initializerCode, memberRef(CONSTANT_FIELDREF, internalName, constant.name(),
+                                                      descriptor(constant.type())));
+            }
+            initializerCode.write(RETURN);
+            if (initializerCode.size() > 0xffff) {
+                throw new IOException("Static initializer of " + internalName + " exceeds the maximum code size");
+            }
+            writeMethod(methods, ACC_STATIC, "<clinit>", codeAttribute, 2, 0, initializerCode.toByteArray());
+        }
+
+        final int sourceFileAttribute = utf8("SourceFile");
+        final int sourceFile = utf8(constantsClass.className() + ".java");
+
+        if (this.poolCount > 0xffff) {
+            throw new IOException("Constant pool of " + internalName + " exceeds the maximum size");
+        }
+
+        final ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(classBytes);
+        out.writeInt(MAGIC);
+        out.writeShort(0);
+        out.writeShort(MAJOR_VERSION);
+        out.writeShort(this.poolCount);
+        this.pool.flush();
+        this.poolBytes.writeTo(out);
+        out.writeShort((isPublic ? ACC_PUBLIC : 0) | ACC_FINAL | ACC_SUPER);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(0);
+        out.writeShort(constantsClass.constants().size());
+        fields.flush();
+        fieldBytes.writeTo(out);
+        out.writeShort(initializedConstants.isEmpty() ? 1 : 2);
+        methods.flush();
+        methodBytes.writeTo(out);
+        out.writeShort(1);
+        out.writeShort(sourceFileAttribute);
+        out.writeInt(2);
+        out.writeShort(sourceFile);
+        out.flush();
+        return classBytes.toByteArray();
+    }
+
+    /**
+     * Writes a method whose descriptor is {@code ()V}.
+     */
+    private void writeMethod(final DataOutputStream methods, final int access, final String name,
+                             final int codeAttribute, final int maxStack, final int maxLocals,
+                             final byte[] code) throws IOException {
+        methods.writeShort(access);
+        methods.writeShort(utf8(name));
+        methods.writeShort(utf8("()V"));
+        methods.writeShort(1);
+        methods.writeShort(codeAttribute);
+        methods.writeInt(2 + 2 + 4 + code.length + 2 + 2);
+        methods.writeShort(maxStack);
+        methods.writeShort(maxLocals);
+        methods.writeInt(code.length);
+        methods.write(code);
+        methods.writeShort(0);
+        methods.writeShort(0);
+    }
+
+    /**
+     * Writes the instructions to push the value of the specified constant onto the operand stack.
+     */
+    private void writeLoadValue(final ByteArrayOutputStream code, final Constant constant) throws IOException {
+        switch (constant.type()) {
+            case BOOLEAN -> code.write(ICONST_0 + ((Boolean)constant.value() ? 1 : 0));
+            case INT -> {
+                final int value = (Integer)constant.value();
+                if (value >= -1 && value <= 5) {
+                    code.write(ICONST_0 + value);
+                } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                    code.write(BIPUSH);
+                    code.write(value);
+                } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                    code.write(SIPUSH);
+                    writeShort(code, value);
+                } else {
+                    writeLdc(code, valueRef(constant));
+                }
+            }
+            case LONG -> {
+                final long value = (Long)constant.value();
+                if (value == 0L || value == 1L) {
+                    code.write(LCONST_0 + (int)value);
+                } else {
+                    code.write(LDC2_W);
+                    writeShort(code, valueRef(constant));
+                }
+            }
+            case STRING -> writeLdc(code, valueRef(constant));
+            default -> throw new IllegalStateException("Unexpected constant type " + constant.type());
+        }
+    }
+
+    private static void writeLdc(final ByteArrayOutputStream code, final int index) {
+        if (index <= 0xff) {
+            code.write(LDC);
+            code.write(index);
+        } else {
+            code.write(LDC_W);
+            writeShort(code, index);
+        }
+    }
+
+    private static void writeShort(final ByteArrayOutputStream out, final int value) {
+        out.write((value >> 8) & 0xff);
+        out.write(value & 0xff);
+    }
+
+    private static String descriptor(final Constant.Type type) {
+        return switch (type) {
+            case INT -> "I";
+            case LONG -> "J";
+            case BOOLEAN -> "Z";
+            case STRING -> "Ljava/lang/String;";
+        };
+    }
+
+    /**
+     * Obtains the constant pool index of the value of the specified constant, adding the value to the pool if
+     * needed. Boolean values are represented as integers.
+     */
+    private int valueRef(final Constant constant) throws IOException {
+        return switch (constant.type()) {
+            case INT -> poolEntry("I" + constant.value(), CONSTANT_INTEGER, out -> out.writeInt((Integer)constant.value()));
+            case BOOLEAN -> {
+                final int value = (Boolean)constant.value() ? 1 : 0;
+                yield poolEntry("I" + value, CONSTANT_INTEGER, out -> out.writeInt(value));
+            }
+            case LONG -> poolEntry("J" + constant.value(), CONSTANT_LONG, out -> out.writeLong((Long)constant.value()));
+            case STRING -> {
+                final int utf8 = utf8(constant.value().toString());
+                yield poolEntry("S" + utf8, CONSTANT_STRING, out -> out.writeShort(utf8));
+            }
+        };
+    }
+
+    private int utf8(final String value) throws IOException {
+        if (utf8Length(value) > 0xffff) {
+            throw new IOException("String exceeds the maximum length of a class file constant");
+        }
+        return poolEntry("U" + value, CONSTANT_UTF8, out -> out.writeUTF(value));
+    }
+
+    private int classRef(final String internalName) throws IOException {
+        final int name = utf8(internalName);
+        return poolEntry("C" + name, CONSTANT_CLASS, out -> out.writeShort(name));
+    }
+
+    private int memberRef(final int tag, final String owner, final String name, final String descriptor)
+            throws IOException {
+        final int ownerIndex = classRef(owner);
+        final int nameIndex = utf8(name);
+        final int descriptorIndex = utf8(descriptor);
+        final int nameAndType = poolEntry("N" + nameIndex + ':' + descriptorIndex, CONSTANT_NAME_AND_TYPE, out -> {
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        });
+        return poolEntry("M" + tag + ':' + ownerIndex + ':' + nameAndType, tag, out -> {
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+        });
+    }
+
+    /**
+     * Obtains the index of a constant pool entry, adding the entry if it is not already in the pool.
+     *
+     * @param key  Uniquely identifies the entry
+     * @param tag  Constant pool tag of the entry
+     * @param writer  Writes the content of the entry following the tag
+     * @return Index of the entry in the constant pool.
+     */
+    private int poolEntry(final String key, final int tag, final EntryWriter writer) throws IOException {
+        final Integer existing = this.poolIndexes.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        final int index = this.poolCount;
+        this.pool.writeByte(tag);
+        writer.write(this.pool);
+        this.poolIndexes.put(key, index);
+
+        // Long and double entries occupy two slots in the constant pool
+        this.poolCount += tag == CONSTANT_LONG ? 2 : 1;
+        return index;
+    }
+
+    /**
+     * Length of a string in the modified UTF-8 encoding used by class files.
+     */
+    private static int utf8Length(final String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c >= 0x0001 && c <= 0x007f) {
+                length++;
+            } else if (c <= 0x07ff) {
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Writes the content of a constant pool entry.
+     */
+    @FunctionalInterface
+    private interface EntryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Computes the digest of a file for a digest constant. The {@link BuildConstantsTask} submits an action for each
+ * file so that files are hashed in parallel. The digest is recorded in a cache entry together with the state of
+ * the file: its size, modification time, change time and file key (e.g. device and inode). A file whose state
+ * matches its cache entry is not hashed again, so only changed files are hashed when the task runs.
+ * <p>
+ * As with the Git index, the state of a file is only trusted if the file was last modified or changed before the
+ * cache entry was written. Otherwise, the file could have been modified again within the resolution of the file
+ * system timestamps without changing its state, so it is hashed again. The change time cannot be set by tools
+ * that preserve the modification time of a file (e.g. {@code cp -p}, {@code touch -r}), so such a rewrite is also
+ * detected. The change time is only available on file systems supporting the "unix" attribute view.
+ */
+abstract class ComputeDigestAction implements WorkAction<ComputeDigestAction.Parameters> {
+
+    private static final Logger LOGGER = Logging.getLogger(ComputeDigestAction.class);
+
+    // Files at least this large are read using memory mapping. Smaller files are read into a buffer, which is
+    // faster than establishing a mapping.
+    private static final long MAP_THRESHOLD = 16L * 1024 * 1024;
+    private static final long MAP_CHUNK_SIZE = 256L * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Parameters for computing the digest of a file.
+     */
+    interface Parameters extends WorkParameters {
+        /**
+         * Obtains the file to hash.
+         *
+         * @return File to hash.
+         */
+        RegularFileProperty getFile();
+
+        /**
+         * Obtains the name of the message digest algorithm (e.g. SHA-256).
+         *
+         * @return Digest algorithm.
+         */
+        Property<String> getAlgorithm();
+
+        /**
+         * Obtains the cache entry for the file.
+         *
+         * @return Cache entry file.
+         */
+        RegularFileProperty getCacheFile();
+    }
+
+    /**
+     * Constructs the action. The constructor is public, unlike the implicit constructor of the class, so that
+     * Gradle can instantiate the action.
+     */
+    public ComputeDigestAction() {
+    }
+
+    @Override
+    public void execute() {
+        final Parameters parameters = getParameters();
+        final Path file = parameters.getFile().get().getAsFile().toPath();
+        final String algorithm = parameters.getAlgorithm().get();
+        final Path cacheFile = parameters.getCacheFile().get().getAsFile().toPath();
+
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            final FileTime changeTime = readChangeTime(file, attributes);
+            final String fileState = attributes.size() + " " + attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS)
+                    + " " + changeTime.to(TimeUnit.NANOSECONDS) + " " + attributes.fileKey() + " " + algorithm + " ";
+            final String cached = readCacheEntry(cacheFile);
+            if (cached != null && cached.startsWith(fileState) && isSettled(attributes, changeTime, cacheFile)) {
+                LOGGER.debug("Using cached digest of {}", file);
+                return;
+            }
+
+            LOGGER.info("Computing the {} digest of {}", algorithm, file);
+            final String digest = HexFormat.of().formatHex(computeDigest(file, attributes.size(), algorithm));
+            Files.createDirectories(cacheFile.getParent());
+            Files.writeString(cacheFile, fileState + digest, StandardCharsets.UTF_8);
+        } catch (final IOException ex) {
+            throw new GradleException("Could not compute the digest of " + file, ex);
+        }
+    }
+
+    /**
+     * Reads the digest recorded in the specified cache entry.
+     *
+     * @param cacheFile  Cache entry file
+     * @return Digest as a hexadecimal string, or {@code null} if the entry does not exist or is malformed.
+     */
+    @Nullable
+    static String readDigest(final Path cacheFile) {
+        final String entry = readCacheEntry(cacheFile);
+        if (entry == null) {
+            return null;
+        }
+        final int pos = entry.lastIndexOf(' ');
+        return pos == -1 ? null : entry.substring(pos + 1);
+    }
+
+    /**
+     * Obtains the time the specified file was last changed, which includes changes to its metadata.
+     *
+     * @param file  File whose change time is obtained
+     * @param attributes  Basic attributes of the file
+     * @return Change time of the file, or its modification time if the file system does not provide the change
+     *      time.
+     */
+    private static FileTime readChangeTime(final Path file, final BasicFileAttributes attributes) {
+        try {
+            return (FileTime)Files.getAttribute(file, "unix:ctime");
+        } catch (final UnsupportedOperationException | IllegalArgumentException | IOException ex) {
+            return attributes.lastModifiedTime();
+        }
+    }
+
+    /**
+     * Indicates whether the specified file was last modified and changed before its cache entry was written. If
+     * not, a modification of the file made after it was hashed may not be reflected in its state.
+     *
+     * @param attributes  Basic attributes of the file
+     * @param changeTime  Change time of the file
+     * @param cacheFile  Cache entry for the file
+     * @return {@code true} if the state of the file recorded in the cache entry can be trusted.
+     */
+    private static boolean isSettled(final BasicFileAttributes attributes, final FileTime changeTime,
+                                     final Path cacheFile) {
+        try {
+            final FileTime entryTime = Files.getLastModifiedTime(cacheFile);
+            return attributes.lastModifiedTime().compareTo(entryTime) < 0 && changeTime.compareTo(entryTime) < 0;
+        } catch (final IOException ex) {
+            return false;
+        }
+    }
+
+    @Nullable
+    private static String readCacheEntry(final Path cacheFile) {
+        try {
+            return Files.readString(cacheFile, StandardCharsets.UTF_8);
+        } catch (final IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Computes the digest of the content of the specified file. Large files are memory mapped in chunks so that
+     * files larger than 2GB can be hashed without copying their content into the heap.
+     *
+     * @param file  File to hash
+     * @param size  Size of the file in bytes
+     * @param algorithm  Name of the message digest algorithm
+     * @return Digest of the content of the file.
+     * @throws IOException if there was a problem reading the file.
+     */
+    static byte[] computeDigest(final Path file, final long size, final String algorithm) throws IOException {
+        final MessageDigest digest = createDigest(algorithm);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (size >= MAP_THRESHOLD) {
+                for (long position = 0; position < size; position += MAP_CHUNK_SIZE) {
+                    final MappedByteBuffer buffer =
+                            channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_CHUNK_SIZE, size - position));
+                    digest.update(buffer);
+                }
+            } else {
+                final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Creates a message digest for the specified algorithm.
+     *
+     * @param algorithm  Name of the message digest algorithm
+     * @return Message digest.
+     */
+    static MessageDigest createDigest(final String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new GradleException("Message digest algorithm " + algorithm + " is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.Serializable;
+
+
+/**
+ * A constant to be written to a generated class.
+ *
+ * @param name  Name of the constant
+ * @param type  Java type of the constant
+ * @param value  Value of the constant, which is an {@link Integer}, {@link Long}, {@link Boolean} or
+ *      {@link String} according to the type
+ * @param inlined  {@code true} if the constant is written as a compile time constant, {@code false} if it is
+ *      written as a final field assigned in a static initializer
+ * @param compressed  {@code true} if the value of a string constant is written compressed and decoded when the
+ *      constant is first accessed
+ */
+record Constant(String name, Type type, Object value, boolean inlined, boolean compressed) implements Serializable {
+
+    /**
+     * Java types for constants.
+     */
+    enum Type {
+        INT("int"),
+        LONG("long"),
+        BOOLEAN("boolean"),
+        STRING("String");
+
+        private final String javaName;
+
+        Type(final String javaName) {
+            this.javaName = javaName;
+        }
+
+        /**
+         * Obtains the name of the type as used in Java source code.
+         *
+         * @return Java type name.
+         */
+        String getJavaName() {
+            return this.javaName;
+        }
+    }
+
+    /**
+     * Creates a constant whose type is determined from the specified value. Integer, long and boolean values are
+     * written as their respective types. All other values are written as a string using their
+     * {@link Object#toString()} method.
+     *
+     * @param name  Name of the constant
+     * @param value  Value for the constant
+     * @param inlined  {@code true} if the constant is written as a compile time constant
+     * @return Newly created constant.
+     */
+    static Constant of(final String name, final Object value, final boolean inlined) {
+        if (value instanceof Integer) {
+            return new Constant(name, Type.INT, value, inlined, false);
+        }
+        if (value instanceof Long) {
+            return new Constant(name, Type.LONG, value, inlined, false);
+        }
+        if (value instanceof Boolean) {
+            return new Constant(name, Type.BOOLEAN, value, inlined, false);
+        }
+        return new Constant(name, Type.STRING, value.toString(), inlined, false);
+    }
+
+    /**
+     * Creates a copy of this string constant whose value is written compressed. A compressed constant is
+     * accessed through a method rather than a field, so it is never a compile time constant.
+     *
+     * @return Compressed copy of this constant.
+     */
+    Constant compress() {
+        assert this.type == Type.STRING;
+        return new Constant(this.name, this.type, this.value, false, true);
+    }
+}
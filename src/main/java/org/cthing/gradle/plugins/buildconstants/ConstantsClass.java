@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.Serializable;
+import java.util.List;
+
+
+/**
+ * Describes a class of constants to be generated.
+ *
+ * @param packageName  The Java package containing the class
+ * @param className  Name of the top level class (not qualified by the package name)
+ * @param access  Access modifier for the class and its constants
+ * @param constants  Constants in the order they are written
+ * @param lookup  {@code true} if methods to look up the constants by name are generated
+ * @param parts  Names (not qualified by the package name) of the classes containing the remaining constants when
+ *      the constants are split into several classes. The lookup methods of this class delegate to these classes.
+ */
+record ConstantsClass(String packageName, String className, SourceAccess access, List<Constant> constants,
+                      boolean lookup, List<String> parts) implements Serializable {
+
+    /**
+     * Creates a description for the class with the specified fully qualified name.
+     *
+     * @param classname  Fully qualified name of the class (e.g. org.cthing.myapp.Constants)
+     * @param access  Access modifier for the class and its constants
+     * @param constants  Constants in the order they are written
+     * @param lookup  {@code true} if methods to look up the constants by name are generated
+     * @param parts  Fully qualified names of the classes containing the remaining constants when the constants
+     *      are split into several classes. The classes must be in the same package as this class.
+     * @return Description of the class.
+     */
+    static ConstantsClass of(final String classname, final SourceAccess access, final List<Constant> constants,
+                             final boolean lookup, final List<String> parts) {
+        final int pos = classname.lastIndexOf('.');
+        assert pos != -1;
+        return new ConstantsClass(classname.substring(0, pos), classname.substring(pos + 1), access,
+                                  List.copyOf(constants), lookup,
+                                  parts.stream().map(part -> part.substring(pos + 1)).toList());
+    }
+
+    /**
+     * Obtains the path of the class relative to a source or class output directory, without a file extension
+     * (e.g. org/cthing/myapp/Constants).
+     *
+     * @return Path of the class.
+     */
+    String getPath() {
+        return this.packageName.replace('.', '/') + '/' + this.className;
+    }
+}
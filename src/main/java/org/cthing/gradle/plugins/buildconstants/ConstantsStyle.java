@@ -0,0 +1,27 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+/**
+ * Specifies how the values of the generated constants are made available to the code that references them.
+ */
+public enum ConstantsStyle {
+
+    /**
+     * Generates compile time constants, which the Java compiler copies into every class that references them.
+     * A change to any value requires recompiling all classes that reference the constants. This is the default
+     * style.
+     */
+    INLINED,
+
+    /**
+     * Generates stable constants as compile time constants and all other constants as final fields that are
+     * assigned once when the class is initialized. Because the Java compiler does not copy the values of these
+     * fields into the classes that reference them, a change to a value only requires recompiling the generated
+     * class.
+     */
+    NON_INLINED,
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.Serializable;
+import java.time.Duration;
+
+import org.gradle.api.Named;
+import org.gradle.api.provider.Property;
+
+
+/**
+ * A constant whose value is expensive to determine (e.g. querying the version of a tool or computing a checksum).
+ * The values of all deferred constants of a task are resolved concurrently when the task executes, each within
+ * a time limit. If a value cannot be resolved in time or its resolution fails, the fallback value is used. The
+ * name of the deferred constant is the name of the generated constant.
+ */
+public interface DeferredConstant extends Named {
+
+    /**
+     * Obtains the value of the constant. The value should be provided by a value source (e.g.
+     * {@code providers.exec}, {@code providers.fileContents} or {@code providers.of} with a custom
+     * {@link org.gradle.api.provider.ValueSource}). When the configuration cache is used, a value source is
+     * obtained when the task executes, concurrently and within the timeout. Any other provider (e.g.
+     * {@code provider { }}) is evaluated when the configuration cache entry is stored, serially, without a
+     * timeout or fallback, and its stored value is reused unchanged by later builds. Integer, long and boolean
+     * values are written as their respective types. All other types are written using the value of their
+     * {@link Object#toString()}. If the value is not present, the constant is not written. The value is
+     * {@link Serializable}, which distinguishes a value from a provider of the value, so that both can be
+     * assigned in the Kotlin DSL (e.g. {@code value = "1.0"} and {@code value = providers.exec { ... }}).
+     *
+     * @return Value of the constant.
+     */
+    Property<Serializable> getValue();
+
+    /**
+     * Obtains the maximum time allowed to resolve the value, measured from when the task starts resolving its
+     * deferred constants. The time spent waiting for a thread to become available counts toward the timeout.
+     * The default is the {@link BuildConstantsTask#getDeferredConstantTimeout() timeout} of the task.
+     *
+     * @return Maximum time to resolve the value.
+     */
+    Property<Duration> getTimeout();
+
+    /**
+     * Obtains the value used when the value of the constant cannot be resolved within the timeout or its
+     * resolution fails. If no fallback value is specified, the task fails in that case.
+     *
+     * @return Fallback value of the constant.
+     */
+    Property<Serializable> getFallbackValue();
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Resolves the values of deferred constants concurrently on a bounded number of threads. The resolution of each
+ * value is limited by the timeout of its constant, which starts when the value is submitted for resolution. A
+ * value that is not resolved within its timeout is abandoned and its thread is interrupted. A value that is
+ * still waiting for a thread when its timeout expires is never resolved. Because every timeout starts on
+ * submission, the resolution of all values finishes within the longest timeout, even if a value ignores the
+ * interruption and occupies its thread indefinitely.
+ */
+final class DeferredConstantResolver {
+
+    private static final Logger LOGGER = Logging.getLogger(DeferredConstantResolver.class);
+
+    private DeferredConstantResolver() {
+    }
+
+    /**
+     * Resolution of a single deferred constant.
+     *
+     * @param constant  Constant being resolved
+     * @param timeout  Maximum time to resolve the value
+     * @param result  Completed with the resolved value, or exceptionally if resolution failed or timed out
+     */
+    private record Resolution(DeferredConstant constant, Duration timeout, CompletableFuture<Object> result) {
+    }
+
+    /**
+     * Resolves the values of the specified constants. Integer, long and boolean values are preserved and all
+     * other values are converted to strings.
+     *
+     * @param constants  Constants to resolve
+     * @param parallelism  Maximum number of values resolved concurrently
+     * @return Map of constant names to their values, sorted by name. Constants without a value are omitted.
+     * @throws GradleException if a value could not be resolved and the constant does not have a fallback value.
+     */
+    static Map<String, Object> resolve(final Collection<DeferredConstant> constants, final int parallelism) {
+        final Map<String, Object> values = new TreeMap<>();
+        if (constants.isEmpty()) {
+            return values;
+        }
+        if (parallelism < 1) {
+            throw new GradleException("The deferred constants parallelism must be at least 1");
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, constants.size()),
+                                                                      new ResolverThreadFactory());
+        try {
+            final List<Resolution> resolutions = new ArrayList<>();
+            for (final DeferredConstant constant : constants) {
+                final Duration timeout = constant.getTimeout().get();
+                final CompletableFuture<Object> result = new CompletableFuture<>();
+                resolutions.add(new Resolution(constant, timeout, result));
+
+                // Interrupt the resolution when it times out so that the thread is available to resolve other
+                // values. A value that has not started when it times out is abandoned without being resolved.
+                final ResolvingThread resolvingThread = new ResolvingThread();
+                result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                      .whenComplete((value, ex) -> {
+                          if (ex instanceof TimeoutException) {
+                              resolvingThread.interrupt();
+                          }
+                      });
+                executor.execute(() -> {
+                    if (!resolvingThread.start(Thread.currentThread())) {
+                        return;
+                    }
+                    final long start = System.nanoTime();
+                    try {
+                        final Object value = normalize(constant.getValue().getOrNull());
+                        LOGGER.info("Resolved deferred constant {} in {} ms", constant.getName(),
+                                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                        result.complete(value);
+                    } catch (final RuntimeException ex) {
+                        result.completeExceptionally(ex);
+                    } finally {
+                        resolvingThread.release();
+                    }
+                });
+            }
+
+            for (final Resolution resolution : resolutions) {
+                final Object value = getValue(resolution);
+                if (value != null) {
+                    values.put(resolution.constant().getName(), value);
+                }
+            }
+        } finally {
+            // Interrupt the resolution of values that have timed out.
+            executor.shutdownNow();
+        }
+        return values;
+    }
+
+    /**
+     * Waits for the resolution of the specified value. The wait is bounded because the result of the resolution
+     * times out independently of the thread resolving the value.
+     */
+    @Nullable
+    private static Object getValue(final Resolution resolution) {
+        final DeferredConstant constant = resolution.constant();
+        try {
+            return resolution.result().join();
+        } catch (final CompletionException ex) {
+            final Throwable cause = ex.getCause();
+            final String reason = cause instanceof TimeoutException
+                                  ? "was not resolved within " + resolution.timeout().toMillis() + " ms"
+                                  : "could not be resolved: " + cause.getMessage();
+            if (!constant.getFallbackValue().isPresent()) {
+                throw new GradleException("The value of deferred constant " + constant.getName() + " " + reason,
+                                          cause);
+            }
+            LOGGER.warn("The value of deferred constant {} {}, using the fallback value", constant.getName(), reason);
+            return normalize(constant.getFallbackValue().get());
+        }
+    }
+
+    /**
+     * Converts a value to a type that can be written as a constant and used as a task input.
+     */
+    @Nullable
+    private static Object normalize(@Nullable final Object value) {
+        if (value == null || value instanceof Integer || value instanceof Long || value instanceof Boolean) {
+            return value;
+        }
+        return value.toString();
+    }
+
+    /**
+     * Thread resolving a value, which is interrupted if the resolution does not complete in time. Once the
+     * resolution has finished, the thread is released and is no longer interrupted, because it may then be
+     * resolving another value. If the resolution times out before a thread starts it, the value is abandoned.
+     */
+    private static final class ResolvingThread {
+        @Nullable
+        private Thread thread;
+        private boolean abandoned;
+
+        /**
+         * Starts the resolution of the value on the specified thread.
+         *
+         * @param thread  Thread resolving the value
+         * @return {@code true} if the value should be resolved, or {@code false} if it has already timed out.
+         */
+        synchronized boolean start(final Thread thread) {
+            if (this.abandoned) {
+                return false;
+            }
+            this.thread = thread;
+            return true;
+        }
+
+        synchronized void interrupt() {
+            this.abandoned = true;
+            if (this.thread != null) {
+                this.thread.interrupt();
+            }
+        }
+
+        synchronized void release() {
+            this.thread = null;
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Creates daemon threads so that a value whose resolution does not respond to interruption does not prevent
+     * the build process from exiting.
+     */
+    private static final class ResolverThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "build-constants-resolver-" + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
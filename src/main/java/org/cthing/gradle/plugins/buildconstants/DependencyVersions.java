@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+
+
+/**
+ * Obtains the resolved versions of selected modules from a resolved dependency graph. Only the graph is
+ * traversed, so the versions are obtained without downloading or hashing any artifacts. The versions are those
+ * selected by Gradle's conflict resolution, which may differ from the declared versions.
+ */
+final class DependencyVersions {
+
+    private DependencyVersions() {
+    }
+
+    /**
+     * Obtains the resolved versions of the specified modules.
+     *
+     * @param root  Root component of the resolved dependency graph
+     * @param modules  Modules whose versions are obtained, in the form group:name
+     * @return Modules found in the graph mapped to their resolved versions, sorted by module. Modules that are
+     *      not in the graph are omitted.
+     * @throws GradleException if a module is not in the form group:name.
+     */
+    static Map<String, String> collect(final ResolvedComponentResult root, final Set<String> modules) {
+        for (final String module : modules) {
+            final int separator = module.indexOf(':');
+            if (separator <= 0 || separator == module.length() - 1 || module.indexOf(':', separator + 1) != -1) {
+                throw new GradleException("Dependency " + module + " must be specified as group:name");
+            }
+        }
+
+        final Map<String, String> versions = new TreeMap<>();
+        final Set<ResolvedComponentResult> visited = new HashSet<>();
+        final Deque<ResolvedComponentResult> pending = new ArrayDeque<>();
+        pending.add(root);
+        while (!pending.isEmpty() && versions.size() < modules.size()) {
+            final ResolvedComponentResult component = pending.remove();
+            if (!visited.add(component)) {
+                continue;
+            }
+
+            final ModuleVersionIdentifier id = component.getModuleVersion();
+            if (id != null && component != root) {
+                final String module = id.getGroup() + ':' + id.getName();
+                if (modules.contains(module)) {
+                    versions.put(module, id.getVersion());
+                }
+            }
+
+            // Unresolved dependencies are skipped. Resolution failures are reported by the tasks that use the
+            // artifacts of the configuration.
+            for (final DependencyResult dependency : component.getDependencies()) {
+                if (dependency instanceof ResolvedDependencyResult resolved) {
+                    pending.add(resolved.getSelected());
+                }
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Obtains the names of the constants for the versions of the specified modules. The name of a constant is
+     * "DEPENDENCY_" followed by the name of the module in upper case and with all characters other than letters
+     * and digits replaced by underscores (e.g. "io.netty:netty-handler" results in "DEPENDENCY_NETTY_HANDLER").
+     * When several of the modules have the same name, their constant names also contain the group of the module
+     * (e.g. "com.fasterxml.jackson.core:jackson-core" results in
+     * "DEPENDENCY_COM_FASTERXML_JACKSON_CORE_JACKSON_CORE").
+     *
+     * @param modules  Modules in the form group:name
+     * @return Modules mapped to the names of their constants, sorted by module.
+     * @throws GradleException if the constant names of two modules are the same even with their groups.
+     */
+    static Map<String, String> toConstantNames(final Set<String> modules) {
+        final Map<String, Integer> nameCounts = new HashMap<>();
+        for (final String module : modules) {
+            nameCounts.merge(toConstantName(module.substring(module.indexOf(':') + 1)), 1, Integer::sum);
+        }
+
+        final Map<String, String> names = new TreeMap<>();
+        final Map<String, String> owners = new HashMap<>();
+        for (final String module : new TreeSet<>(modules)) {
+            final String name = toConstantName(module.substring(module.indexOf(':') + 1));
+            final String constantName = nameCounts.get(name) > 1 ? toConstantName(module) : name;
+            final String owner = owners.putIfAbsent(constantName, module);
+            if (owner != null) {
+                throw new GradleException("Dependencies " + owner + " and " + module + " both result in the constant "
+                                                  + constantName);
+            }
+            names.put(module, constantName);
+        }
+        return names;
+    }
+
+    /**
+     * Converts the specified module, or part of it, to a constant name.
+     *
+     * @param module  Module or part of a module to convert
+     * @return "DEPENDENCY_" followed by the converted module.
+     */
+    private static String toConstantName(final String module) {
+        return "DEPENDENCY_" + VersionCatalog.toConstantName(module);
+    }
+}
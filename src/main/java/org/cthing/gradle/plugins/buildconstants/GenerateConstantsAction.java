@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+
+/**
+ * Writes the files for one constants class. The {@link BuildConstantsTask} submits an action for each class it
+ * generates, including each part of a class that is split, so that the classes of a task, and the classes of
+ * several tasks, can be written concurrently.
+ */
+abstract class GenerateConstantsAction implements WorkAction<GenerateConstantsAction.Parameters> {
+
+    private static final Logger LOGGER = Logging.getLogger(GenerateConstantsAction.class);
+
+    /**
+     * Parameters for writing a constants class.
+     */
+    interface Parameters extends WorkParameters {
+        /**
+         * Obtains the class to write.
+         *
+         * @return Class to write.
+         */
+        Property<ConstantsClass> getConstantsClass();
+
+        /**
+         * Obtains the form in which the class is generated.
+         *
+         * @return Format of the generated class.
+         */
+        Property<OutputFormat> getOutputFormat();
+
+        /**
+         * Obtains the directory in which the source file is written.
+         *
+         * @return Source output directory.
+         */
+        DirectoryProperty getOutputDirectory();
+
+        /**
+         * Obtains the directory in which the class file is written when using the {@link OutputFormat#CLASS}
+         * format.
+         *
+         * @return Class file output directory.
+         */
+        DirectoryProperty getClassesOutputDirectory();
+
+        /**
+         * Obtains the directory in which the properties resource is written when using the
+         * {@link OutputFormat#RESOURCE} format.
+         *
+         * @return Resource output directory.
+         */
+        DirectoryProperty getResourcesOutputDirectory();
+    }
+
+    /**
+     * Constructs the action. The constructor is public, unlike the implicit constructor of the class, so that
+     * Gradle can instantiate the action.
+     */
+    public GenerateConstantsAction() {
+    }
+
+    @Override
+    public void execute() {
+        final Parameters parameters = getParameters();
+        final ConstantsClass constantsClass = parameters.getConstantsClass().get();
+        final OutputFormat outputFormat = parameters.getOutputFormat().get();
+        final String cname = constantsClass.packageName() + '.' + constantsClass.className();
+
+        try {
+            final File sourceFile = new File(parameters.getOutputDirectory().get().getAsFile(),
+                                             constantsClass.getPath() + ".java");
+            writeGeneratedFile(sourceFile, "source file", cname, out -> {
+                final PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+                if (outputFormat == OutputFormat.RESOURCE) {
+                    JavaSourceWriter.writeResourceLoader(writer, constantsClass);
+                } else {
+                    JavaSourceWriter.write(writer, constantsClass);
+                }
+                writer.flush();
+                if (writer.checkError()) {
+                    throw new IOException("Could not write source file " + sourceFile);
+                }
+            });
+
+            final File classFile = new File(parameters.getClassesOutputDirectory().get().getAsFile(),
+                                            constantsClass.getPath() + ".class");
+            if (outputFormat == OutputFormat.CLASS) {
+                final byte[] content = ClassFileWriter.write(constantsClass);
+                writeGeneratedFile(classFile, "class file", cname, out -> out.write(content));
+            } else {
+                Files.deleteIfExists(classFile.toPath());
+            }
+
+            final File resourceFile = new File(parameters.getResourcesOutputDirectory().get().getAsFile(),
+                                               constantsClass.getPath() + ".properties");
+            if (outputFormat == OutputFormat.RESOURCE) {
+                writeGeneratedFile(resourceFile, "resource", cname, out -> PropertiesWriter.write(out, constantsClass));
+            } else {
+                Files.deleteIfExists(resourceFile.toPath());
+            }
+        } catch (final IOException ex) {
+            throw new GradleException("Could not write constants class " + cname, ex);
+        }
+    }
+
+    /**
+     * Writes a generated file unless it already exists with the identical content. The content is streamed to
+     * a temporary file while its digest is computed. If the content differs from that of the existing file, the
+     * temporary file replaces the existing file. Leaving an unchanged file untouched preserves its modification
+     * time so that downstream tools do not consider it changed.
+     *
+     * @param file  File to write
+     * @param kind  Kind of file for logging (e.g. "source file")
+     * @param cname  Fully qualified name of the class in the file for logging
+     * @param contentWriter  Writes the content for the file
+     * @throws IOException if there was a problem writing the file.
+     */
+    static void writeGeneratedFile(final File file, final String kind, final String cname,
+                                   final ContentWriter contentWriter) throws IOException {
+        final File parentFile = file.getParentFile();
+        if (!parentFile.exists() && !parentFile.mkdirs() && !parentFile.isDirectory()) {
+            throw new GradleException("Could not create directories " + parentFile);
+        }
+
+        final Path tempFile = Files.createTempFile(parentFile.toPath(), file.getName(), ".tmp");
+        try {
+            final MessageDigest digest = createDigest();
+            try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)),
+                                                           digest)) {
+                contentWriter.write(out);
+            }
+
+            if (file.isFile() && file.length() == Files.size(tempFile)
+                    && MessageDigest.isEqual(digest.digest(), computeDigest(file.toPath()))) {
+                LOGGER.info("The {} for constants class {} is unchanged, skipped writing", kind, cname);
+                return;
+            }
+
+            try {
+                Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOGGER.info("Wrote {} for constants class {}", kind, cname);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Computes the digest of the content of the specified file.
+     *
+     * @param file  File whose content is digested
+     * @return SHA-256 digest of the content of the file.
+     * @throws IOException if there was a problem reading the file.
+     */
+    private static byte[] computeDigest(final Path file) throws IOException {
+        final MessageDigest digest = createDigest();
+        try (InputStream ins = new DigestInputStream(Files.newInputStream(file), digest)) {
+            ins.transferTo(OutputStream.nullOutputStream());
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Creates a digest for comparing the content of generated files.
+     *
+     * @return SHA-256 message digest.
+     */
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new GradleException("SHA-256 message digest not available", ex);
+        }
+    }
+
+    /**
+     * Writes the content of a generated file.
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
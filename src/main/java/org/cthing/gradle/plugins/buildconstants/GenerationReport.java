@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Metrics describing an execution of a {@link BuildConstantsTask}. The report is written as a JSON object so that
+ * the reports of many projects can be aggregated by other tools.
+ *
+ * @param taskPath  Path of the task that generated the constants (e.g. :app:generateBuildConstants)
+ * @param reason  Reason the task was executed
+ * @param inputResolutionMillis  Time taken to determine the constants, including resolving the deferred constants
+ *      and computing file digests
+ * @param generationMillis  Time taken to render and write the constants classes and delete stale files
+ * @param constantCount  Number of constants generated
+ * @param classCount  Number of constants classes generated
+ * @param filesWritten  Number of files written or deleted
+ * @param bytesWritten  Total size of the files written
+ * @param unchanged  {@code true} if all generated files were unchanged and none were written
+ * @param constantsDigest  Digest of the generated constants and their classes, which is used to determine why
+ *      the next execution of the task was performed
+ */
+record GenerationReport(String taskPath, Reason reason, long inputResolutionMillis, long generationMillis,
+                        int constantCount, int classCount, int filesWritten, long bytesWritten, boolean unchanged,
+                        String constantsDigest) {
+
+    private static final Pattern DIGEST_PATTERN = Pattern.compile("\"constantsDigest\"\\s*:\\s*\"([0-9a-f]*)\"");
+
+    /**
+     * Reasons a task was executed. Gradle does not provide the reason a task is out of date to the task, so the
+     * reason is determined by comparing the constants with those recorded by the previous report.
+     */
+    enum Reason {
+        /** There is no report from a previous execution of the task. */
+        NO_PREVIOUS_EXECUTION,
+
+        /** The value, type or class of a constant changed, or a constant was added or removed. */
+        CONSTANTS_CHANGED,
+
+        /**
+         * The constants are unchanged, so the task was executed because a build file or an output of the task
+         * changed, or because the execution was forced (e.g. using --rerun-tasks).
+         */
+        BUILD_FILES_OR_OUTPUTS_CHANGED,
+    }
+
+    /**
+     * Determines the reason for the current execution of a task by comparing the digest of the current constants
+     * with the digest recorded by the report of the previous execution.
+     *
+     * @param reportFile  Report written by the previous execution of the task
+     * @param constantsDigest  Digest of the current constants
+     * @return Reason the task was executed.
+     */
+    static Reason determineReason(final Path reportFile, final String constantsDigest) {
+        final String previousDigest = readDigest(reportFile);
+        if (previousDigest == null) {
+            return Reason.NO_PREVIOUS_EXECUTION;
+        }
+        return previousDigest.equals(constantsDigest) ? Reason.BUILD_FILES_OR_OUTPUTS_CHANGED
+                                                      : Reason.CONSTANTS_CHANGED;
+    }
+
+    @Nullable
+    private static String readDigest(final Path reportFile) {
+        try {
+            final Matcher matcher = DIGEST_PATTERN.matcher(Files.readString(reportFile, StandardCharsets.UTF_8));
+            return matcher.find() ? matcher.group(1) : null;
+        } catch (final IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the report as a JSON object.
+     *
+     * @param reportFile  File to which the report is written. Missing parent directories are created.
+     * @throws IOException if there was a problem writing the report.
+     */
+    void write(final Path reportFile) throws IOException {
+        final StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"taskPath\": ");
+        appendString(json, this.taskPath);
+        json.append(",\n  \"reason\": \"").append(this.reason).append('"');
+        json.append(",\n  \"inputResolutionMillis\": ").append(this.inputResolutionMillis);
+        json.append(",\n  \"generationMillis\": ").append(this.generationMillis);
+        json.append(",\n  \"constantCount\": ").append(this.constantCount);
+        json.append(",\n  \"classCount\": ").append(this.classCount);
+        json.append(",\n  \"filesWritten\": ").append(this.filesWritten);
+        json.append(",\n  \"bytesWritten\": ").append(this.bytesWritten);
+        json.append(",\n  \"unchanged\": ").append(this.unchanged);
+        json.append(",\n  \"constantsDigest\": \"").append(this.constantsDigest).append('"');
+        json.append("\n}\n");
+
+        final Path parent = reportFile.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(reportFile, json, StandardCharsets.UTF_8);
+    }
+
+    private static void appendString(final StringBuilder json, final String str) {
+        json.append('"');
+        for (int i = 0; i < str.length(); i++) {
+            final char ch = str.charAt(i);
+            switch (ch) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                default -> {
+                    if (ch < 0x20) {
+                        json.append(String.format("\\u%04x", (int)ch));
+                    } else {
+                        json.append(ch);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
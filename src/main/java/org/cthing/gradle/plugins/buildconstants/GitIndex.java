@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Contents of a Git index file (i.e. {@code .git/index}) needed to determine whether a working tree has
+ * uncommitted changes. Index format versions 2, 3 and 4 are supported.
+ *
+ * @param entries  Entries in the index, one per tracked path and merge stage
+ * @param treeId  Hexadecimal identifier of the root tree cached by the index or {@code null} if the index does
+ *      not contain a valid cached root tree
+ */
+record GitIndex(List<GitIndex.Entry> entries, @Nullable String treeId) {
+
+    private static final int SIGNATURE = 0x44495243;
+    private static final int TREE_EXTENSION = 0x54524545;
+    private static final int ID_LENGTH = 20;
+    private static final int FLAG_ASSUME_UNCHANGED = 0x8000;
+    private static final int FLAG_EXTENDED = 0x4000;
+    private static final int FLAG_SKIP_WORKTREE = 0x4000;
+    private static final int FLAG_INTENT_TO_ADD = 0x2000;
+    private static final int NAME_MASK = 0x0fff;
+    private static final int STAGE_SHIFT = 12;
+    private static final int STAGE_MASK = 0x3;
+
+    /**
+     * Entry in the index.
+     *
+     * @param path  Path of the file relative to the root of the working tree
+     * @param mode  File mode (e.g. 0100644)
+     * @param size  Size of the file in bytes, truncated to 32 bits
+     * @param mtimeSeconds  Modification time of the file in seconds since the Unix Epoch
+     * @param mtimeNanos  Nanosecond fraction of the modification time
+     * @param id  Hexadecimal identifier of the blob for the file
+     * @param stage  Merge stage of the entry (0 if the entry is not conflicted)
+     * @param assumeUnchanged  Whether changes to the file in the working tree are ignored, as set by
+     *      {@code git update-index --assume-unchanged}
+     * @param skipWorktree  Whether the file is excluded from the working tree (e.g. by a sparse checkout)
+     * @param intentToAdd  Whether the file has been added with {@code git add -N}
+     */
+    record Entry(String path, int mode, long size, long mtimeSeconds, int mtimeNanos, String id, int stage,
+                 boolean assumeUnchanged, boolean skipWorktree, boolean intentToAdd) {
+    }
+
+    /**
+     * Reads the specified index file.
+     *
+     * @param indexFile  Index file to read
+     * @return Contents of the index.
+     * @throws IOException if there was a problem reading the file or the file is not a supported index.
+     */
+    static GitIndex read(final Path indexFile) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        if (buffer.remaining() < 12 + ID_LENGTH || buffer.getInt() != SIGNATURE) {
+            throw new IOException("Not a Git index file: " + indexFile);
+        }
+        final int version = buffer.getInt();
+        if (version < 2 || version > 4) {
+            throw new IOException("Unsupported Git index version " + version + ": " + indexFile);
+        }
+
+        final int count = buffer.getInt();
+        final List<Entry> entries = new ArrayList<>(count);
+        byte[] previousPath = new byte[0];
+        for (int i = 0; i < count; i++) {
+            final int start = buffer.position();
+            buffer.getInt();                        // ctime seconds
+            buffer.getInt();                        // ctime nanoseconds
+            final long mtimeSeconds = Integer.toUnsignedLong(buffer.getInt());
+            final int mtimeNanos = buffer.getInt();
+            buffer.getInt();                        // device
+            buffer.getInt();                        // inode
+            final int mode = buffer.getInt();
+            buffer.getInt();                        // uid
+            buffer.getInt();                        // gid
+            final long size = Integer.toUnsignedLong(buffer.getInt());
+            final byte[] id = new byte[ID_LENGTH];
+            buffer.get(id);
+            final int flags = Short.toUnsignedInt(buffer.getShort());
+            final int extendedFlags = (flags & FLAG_EXTENDED) != 0 ? Short.toUnsignedInt(buffer.getShort()) : 0;
+
+            final byte[] path;
+            if (version == 4) {
+                // The path is prefix compressed relative to the path of the previous entry
+                final int strip = readVarint(buffer);
+                final byte[] suffix = readNulTerminated(buffer);
+                final int keep = previousPath.length - strip;
+                if (keep < 0) {
+                    throw new IOException("Malformed Git index file: " + indexFile);
+                }
+                path = new byte[keep + suffix.length];
+                System.arraycopy(previousPath, 0, path, 0, keep);
+                System.arraycopy(suffix, 0, path, keep, suffix.length);
+            } else {
+                final int nameLength = flags & NAME_MASK;
+                if (nameLength < NAME_MASK) {
+                    path = new byte[nameLength];
+                    buffer.get(path);
+                    buffer.get();
+                } else {
+                    path = readNulTerminated(buffer);
+                }
+
+                // Entries are padded with NULs to a multiple of eight bytes
+                final int length = buffer.position() - start;
+                final int padded = (length + 7) & ~7;
+                buffer.position(start + padded);
+            }
+            previousPath = path;
+
+            entries.add(new Entry(new String(path, StandardCharsets.UTF_8), mode, size, mtimeSeconds, mtimeNanos,
+                                  HexFormat.of().formatHex(id), (flags >> STAGE_SHIFT) & STAGE_MASK,
+                                  (flags & FLAG_ASSUME_UNCHANGED) != 0,
+                                  (extendedFlags & FLAG_SKIP_WORKTREE) != 0,
+                                  (extendedFlags & FLAG_INTENT_TO_ADD) != 0));
+        }
+
+        return new GitIndex(List.copyOf(entries), readRootTree(buffer));
+    }
+
+    /**
+     * Searches the index extensions for the cached tree extension and obtains the identifier of the root tree.
+     *
+     * @param buffer  Index contents positioned at the first extension
+     * @return Hexadecimal identifier of the root tree or {@code null} if there is no cached tree extension or the
+     *      cached root tree has been invalidated.
+     */
+    @Nullable
+    private static String readRootTree(final ByteBuffer buffer) {
+        final int extensionsEnd = buffer.limit() - ID_LENGTH;
+        while (buffer.position() + 8 <= extensionsEnd) {
+            final int signature = buffer.getInt();
+            final int length = buffer.getInt();
+            final int next = buffer.position() + length;
+            if (length < 0 || next > extensionsEnd) {
+                return null;
+            }
+            if (signature == TREE_EXTENSION) {
+                // Root entry: empty path, NUL, entry count, space, subtree count, newline, identifier
+                readNulTerminated(buffer);
+                final StringBuilder counts = new StringBuilder();
+                byte b;
+                while ((b = buffer.get()) != '\n') {
+                    counts.append((char)b);
+                }
+                if (counts.charAt(0) == '-') {
+                    return null;
+                }
+                final byte[] id = new byte[ID_LENGTH];
+                buffer.get(id);
+                return HexFormat.of().formatHex(id);
+            }
+            buffer.position(next);
+        }
+        return null;
+    }
+
+    /**
+     * Reads the variable length integer used for path prefix compression in version 4 indexes.
+     */
+    private static int readVarint(final ByteBuffer buffer) {
+        int b = buffer.get() & 0xff;
+        int value = b & 0x7f;
+        while ((b & 0x80) != 0) {
+            b = buffer.get() & 0xff;
+            value = ((value + 1) << 7) | (b & 0x7f);
+        }
+        return value;
+    }
+
+    private static byte[] readNulTerminated(final ByteBuffer buffer) {
+        final int start = buffer.position();
+        int end = start;
+        while (buffer.get(end) != 0) {
+            end++;
+        }
+        final byte[] value = new byte[end - start];
+        buffer.get(value);
+        buffer.get();
+        return value;
+    }
+}
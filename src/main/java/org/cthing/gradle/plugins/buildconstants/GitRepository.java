@@ -0,0 +1,1247 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Reads information directly from a Git repository without spawning a {@code git} process, except to determine
+ * whether files converted by external programs (e.g. Git LFS) are modified. Loose and packed references and
+ * objects are supported, including delta compressed packed objects, as are worktrees. Only repositories using
+ * the SHA-1 object format and the files reference storage format are supported. Opening a repository using the
+ * SHA-256 object format or the reftable reference storage format fails.
+ */
+final class GitRepository {
+
+    private static final String REF_PREFIX = "ref:";
+    private static final int OBJ_COMMIT = 1;
+    private static final int OBJ_TREE = 2;
+    private static final int OBJ_BLOB = 3;
+    private static final int OBJ_TAG = 4;
+    private static final int OBJ_OFS_DELTA = 6;
+    private static final int OBJ_REF_DELTA = 7;
+    private static final int IDX_MAGIC = 0xff744f63;
+    private static final int ID_LENGTH = 20;
+    private static final int MAX_SYMREF_DEPTH = 5;
+    private static final int MAX_DESCRIBE_COMMITS = 10_000;
+    private static final int MAX_DESCRIBE_CANDIDATES = 10;
+    private static final int SEEN = 1;
+    private static final int PRIORITY_LIGHTWEIGHT = 1;
+    private static final int PRIORITY_ANNOTATED = 2;
+    private static final int ABBREV_LENGTH = 7;
+    private static final int MODE_TYPE_MASK = 0170000;
+    private static final int MODE_TREE = 0040000;
+    private static final int MODE_SYMLINK = 0120000;
+    private static final int MODE_GITLINK = 0160000;
+
+    private final Path gitDir;
+    private final Path commonDir;
+    private final Path workTree;
+
+    @Nullable
+    private Map<String, String> packedRefs;
+
+    @Nullable
+    private List<Path> packIndexes;
+
+    private GitRepository(final Path gitDir, final Path commonDir, final Path workTree) {
+        this.gitDir = gitDir;
+        this.commonDir = commonDir;
+        this.workTree = workTree;
+    }
+
+    /**
+     * Locates the Git repository containing the specified directory by searching the directory and its ancestors
+     * for a {@code .git} directory or a {@code .git} file referencing the repository (e.g. a worktree).
+     *
+     * @param dir  Directory from which to start searching
+     * @return Repository containing the directory or {@code null} if the directory is not in a Git repository.
+     * @throws IOException if there was a problem reading the {@code .git} file.
+     */
+    @Nullable
+    static GitRepository find(final File dir) throws IOException {
+        Path current = dir.toPath().toAbsolutePath().normalize();
+        while (current != null) {
+            final Path dotGit = current.resolve(".git");
+            if (Files.isDirectory(dotGit)) {
+                return open(dotGit, current);
+            }
+            if (Files.isRegularFile(dotGit)) {
+                final String content = Files.readString(dotGit, StandardCharsets.UTF_8).trim();
+                if (content.startsWith("gitdir:")) {
+                    return open(current.resolve(content.substring("gitdir:".length()).trim()).normalize(), current);
+                }
+            }
+            current = current.getParent();
+        }
+        return null;
+    }
+
+    private static GitRepository open(final Path gitDir, final Path workTree) throws IOException {
+        final Path commonDirFile = gitDir.resolve("commondir");
+        final Path commonDir = Files.isRegularFile(commonDirFile)
+                               ? gitDir.resolve(Files.readString(commonDirFile, StandardCharsets.UTF_8).trim())
+                                       .normalize()
+                               : gitDir;
+        checkFormat(commonDir);
+        return new GitRepository(gitDir, commonDir, workTree);
+    }
+
+    /**
+     * Verifies that the repository uses the SHA-1 object format and the files reference storage format, as
+     * specified by the {@code extensions.objectFormat} and {@code extensions.refStorage} settings in the
+     * repository configuration.
+     *
+     * @param commonDir  Repository metadata directory shared by all worktrees
+     * @throws IOException if the repository uses an unsupported format or its configuration cannot be read.
+     */
+    private static void checkFormat(final Path commonDir) throws IOException {
+        final Map<String, String> config = new HashMap<>();
+        readConfig(commonDir.resolve("config"), config);
+
+        final String objectFormat = config.getOrDefault("extensions.objectformat", "sha1").toLowerCase(Locale.ROOT);
+        if (!"sha1".equals(objectFormat)) {
+            throw new IOException("The Git repository " + commonDir + " uses the " + objectFormat
+                                          + " object format, which is not supported. Only SHA-1 repositories are supported.");
+        }
+        final String refStorage = config.getOrDefault("extensions.refstorage", "files").toLowerCase(Locale.ROOT);
+        if (!"files".equals(refStorage)) {
+            throw new IOException("The Git repository " + commonDir + " uses the " + refStorage
+                                          + " reference storage format, which is not supported");
+        }
+    }
+
+    /**
+     * Reads the settings in the specified Git configuration file. Settings are keyed by their section, subsection
+     * and name separated by dots (e.g. "core.autocrlf" or "filter.lfs.clean"). Section and setting names are
+     * converted to lower case. Settings read later replace those read earlier, so files are read in increasing
+     * order of precedence. Includes are not followed.
+     *
+     * @param configFile  Configuration file to read. Nothing is read if the file does not exist.
+     * @param config  Map to which the settings are added
+     * @throws IOException if there was a problem reading the file.
+     */
+    private static void readConfig(final Path configFile, final Map<String, String> config) throws IOException {
+        if (!Files.isRegularFile(configFile)) {
+            return;
+        }
+
+        String section = "";
+        for (final String rawLine : Files.readAllLines(configFile, StandardCharsets.UTF_8)) {
+            final String line = rawLine.strip();
+            if (line.startsWith("[")) {
+                final int end = line.indexOf(']');
+                final String header = line.substring(1, end == -1 ? line.length() : end).strip();
+                final int quote = header.indexOf('"');
+                section = quote == -1
+                          ? header.toLowerCase(Locale.ROOT)
+                          : header.substring(0, quote).strip().toLowerCase(Locale.ROOT) + '.'
+                                  + header.substring(quote + 1).replace("\"", "");
+                continue;
+            }
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith(";")) {
+                continue;
+            }
+            final int equals = line.indexOf('=');
+            final String key = (equals == -1 ? line : line.substring(0, equals)).strip().toLowerCase(Locale.ROOT);
+            final String value = equals == -1
+                                 ? "true"
+                                 : line.substring(equals + 1).split("[#;]", 2)[0].replace("\"", "").strip();
+            config.put(section + '.' + key, value);
+        }
+    }
+
+    /**
+     * Obtains the location of the repository's {@code .git} directory. For a worktree, this is the worktree
+     * specific directory.
+     *
+     * @return Repository metadata directory.
+     */
+    Path getGitDir() {
+        return this.gitDir;
+    }
+
+    /**
+     * Obtains the name of the reference that HEAD points to (e.g. refs/heads/main).
+     *
+     * @return Name of the reference HEAD points to, or {@code null} if HEAD is detached.
+     * @throws IOException if there was a problem reading HEAD.
+     */
+    @Nullable
+    String readHeadRef() throws IOException {
+        final String head = readRefFile(this.gitDir.resolve("HEAD"));
+        return head != null && head.startsWith(REF_PREFIX) ? head.substring(REF_PREFIX.length()).trim() : null;
+    }
+
+    /**
+     * Obtains the identifier of the commit that HEAD points to.
+     *
+     * @return Hexadecimal commit identifier or {@code null} if the repository has no commits.
+     * @throws IOException if there was a problem reading the references.
+     */
+    @Nullable
+    String resolveHead() throws IOException {
+        return resolve("HEAD");
+    }
+
+    /**
+     * Resolves the specified reference to an object identifier, following symbolic references.
+     *
+     * @param refName  Name of the reference (e.g. HEAD, refs/heads/main)
+     * @return Hexadecimal object identifier or {@code null} if the reference does not exist.
+     * @throws IOException if there was a problem reading the references.
+     */
+    @Nullable
+    String resolve(final String refName) throws IOException {
+        String name = refName;
+        for (int depth = 0; depth < MAX_SYMREF_DEPTH; depth++) {
+            final Path refDir = "HEAD".equals(name) || !name.startsWith("refs/") ? this.gitDir : this.commonDir;
+            String value = readRefFile(refDir.resolve(name));
+            if (value == null && refDir != this.commonDir) {
+                value = readRefFile(this.commonDir.resolve(name));
+            }
+            if (value == null) {
+                value = readPackedRefs().get(name);
+            }
+            if (value == null) {
+                return null;
+            }
+            if (!value.startsWith(REF_PREFIX)) {
+                return value;
+            }
+            name = value.substring(REF_PREFIX.length()).trim();
+        }
+        return null;
+    }
+
+    /**
+     * Obtains all references in the repository whose names begin with the specified prefix, resolved to their
+     * object identifiers.
+     *
+     * @param prefix  Reference name prefix (e.g. refs/tags/)
+     * @return Map of reference names to hexadecimal object identifiers.
+     * @throws IOException if there was a problem reading the references.
+     */
+    Map<String, String> readRefs(final String prefix) throws IOException {
+        final Map<String, String> refs = new HashMap<>();
+        readPackedRefs().forEach((name, id) -> {
+            if (name.startsWith(prefix)) {
+                refs.put(name, id);
+            }
+        });
+
+        final Path refsDir = this.commonDir.resolve(prefix);
+        if (Files.isDirectory(refsDir)) {
+            try (var paths = Files.walk(refsDir)) {
+                for (final Path path : (Iterable<Path>)paths.filter(Files::isRegularFile)::iterator) {
+                    final String name = prefix + refsDir.relativize(path).toString().replace(File.separatorChar, '/');
+                    final String id = resolve(name);
+                    if (id != null) {
+                        refs.put(name, id);
+                    }
+                }
+            }
+        }
+        return refs;
+    }
+
+    /**
+     * Reads the commit with the specified identifier.
+     *
+     * @param commitId  Hexadecimal identifier of the commit
+     * @return Commit information.
+     * @throws IOException if the commit could not be found or read.
+     */
+    GitCommit readCommit(final String commitId) throws IOException {
+        final GitObject object = readObject(commitId);
+        if (object.type() != OBJ_COMMIT) {
+            throw new IOException("Object " + commitId + " is not a commit");
+        }
+        return GitCommit.parse(commitId, object.content());
+    }
+
+    /**
+     * Obtains the identifier of the object that an annotated tag points to. If the specified object is not an
+     * annotated tag, its identifier is returned.
+     *
+     * @param objectId  Hexadecimal identifier of a tag or other object
+     * @return Hexadecimal identifier of the tagged object.
+     * @throws IOException if the object could not be found or read.
+     */
+    String peel(final String objectId) throws IOException {
+        String id = objectId;
+        GitObject object = readObject(id);
+        while (object.type() == OBJ_TAG) {
+            final String content = new String(object.content(), StandardCharsets.UTF_8);
+            if (!content.startsWith("object ")) {
+                throw new IOException("Malformed tag " + id);
+            }
+            id = content.substring("object ".length(), "object ".length() + 2 * ID_LENGTH);
+            object = readObject(id);
+        }
+        return id;
+    }
+
+    /**
+     * Describes the specified commit relative to the closest tag reachable from it, in the same format as
+     * {@code git describe --tags --always --abbrev=7}. If the commit is tagged, the tag name is returned. If a
+     * tag is reachable from the commit, the description consists of the tag name, the number of commits since
+     * the tag and the abbreviated commit identifier prefixed by "g" (e.g. v1.2.0-14-g2414721). Otherwise, the
+     * abbreviated commit identifier is returned. Both lightweight and annotated tags are considered.
+     * <p>
+     * The tag is chosen as by {@code git describe}. The history is walked in commit time order, collecting up to
+     * 10 tagged commits as candidates and counting, for each candidate, the walked commits that are not
+     * reachable from it. The candidate with the fewest such commits is chosen, with ties going to the candidate
+     * found first. When a commit has several tags, annotated tags are preferred over lightweight tags, the most
+     * recently created annotated tag is preferred over other annotated tags, and otherwise the tag whose name
+     * sorts first is used. To bound the cost for large repositories, at most 10,000 commits are walked. If that
+     * limit is reached, fewer tags may be considered and the number of commits may be lower than reported by
+     * {@code git describe}.
+     *
+     * @param commitId  Hexadecimal identifier of the commit to describe
+     * @return Description of the commit.
+     * @throws IOException if there was a problem reading the repository.
+     */
+    String describe(final String commitId) throws IOException {
+        final Map<String, TagName> tagsByCommit = readTagNames();
+        final String abbrevId = commitId.substring(0, ABBREV_LENGTH);
+        final TagName exactTag = tagsByCommit.get(commitId);
+        if (exactTag != null) {
+            return exactTag.name();
+        }
+        if (tagsByCommit.isEmpty()) {
+            return abbrevId;
+        }
+
+        // Each candidate is assigned a flag, which is propagated from a commit to its parents so that the flags
+        // of a commit identify the candidates from which it is reachable.
+        final Map<String, Integer> flags = new HashMap<>();
+        final CommitQueue queue = new CommitQueue();
+        flags.put(commitId, SEEN);
+        queue.add(readCommit(commitId));
+
+        final List<Candidate> candidates = new ArrayList<>();
+        int annotatedCount = 0;
+        int walked = 0;
+        GitCommit gaveUpOn = null;
+        while (!queue.isEmpty() && walked < MAX_DESCRIBE_COMMITS) {
+            final GitCommit commit = queue.remove();
+            walked++;
+
+            final TagName tag = tagsByCommit.get(commit.id());
+            if (tag != null) {
+                if (candidates.size() == MAX_DESCRIBE_CANDIDATES) {
+                    gaveUpOn = commit;
+                    break;
+                }
+                final Candidate candidate = new Candidate(tag.name(), 1 << (candidates.size() + 1), walked - 1);
+                candidates.add(candidate);
+                flags.merge(commit.id(), candidate.flag, (a, b) -> a | b);
+                if (tag.priority() == PRIORITY_ANNOTATED) {
+                    annotatedCount++;
+                }
+            }
+
+            final int commitFlags = flags.get(commit.id());
+            for (final Candidate candidate : candidates) {
+                if ((commitFlags & candidate.flag) == 0) {
+                    candidate.depth++;
+                }
+            }
+
+            // Stop if the last remaining path is already covered by the best candidates.
+            if (annotatedCount > 0 && queue.isEmpty() && isCoveredByBest(candidates, commitFlags)) {
+                break;
+            }
+
+            addParents(commit, commitFlags, flags, queue);
+        }
+
+        if (candidates.isEmpty()) {
+            return abbrevId;
+        }
+
+        // The sort is stable, so candidates with the same depth remain in the order in which they were found.
+        candidates.sort(Comparator.comparingInt(candidate -> candidate.depth));
+        final Candidate best = candidates.get(0);
+        if (gaveUpOn != null) {
+            queue.add(gaveUpOn);
+        }
+        finishDepthComputation(queue, flags, best, walked);
+
+        return best.name + '-' + best.depth + "-g" + abbrevId;
+    }
+
+    /**
+     * Continues walking the history to count the remaining commits that are not reachable from the chosen
+     * candidate. The walk stops once all commits remaining to be walked are reachable from the candidate.
+     *
+     * @param queue  Commits remaining to be walked
+     * @param flags  Flags of the commits seen so far
+     * @param best  Chosen candidate
+     * @param walked  Number of commits already walked
+     * @throws IOException if there was a problem reading the repository.
+     */
+    private void finishDepthComputation(final CommitQueue queue, final Map<String, Integer> flags,
+                                        final Candidate best, final int walked) throws IOException {
+        int count = walked;
+        while (!queue.isEmpty() && count < MAX_DESCRIBE_COMMITS) {
+            final GitCommit commit = queue.remove();
+            count++;
+            final int commitFlags = flags.get(commit.id());
+            if ((commitFlags & best.flag) != 0) {
+                boolean allReachable = true;
+                for (final GitCommit remaining : queue) {
+                    if ((flags.get(remaining.id()) & best.flag) == 0) {
+                        allReachable = false;
+                        break;
+                    }
+                }
+                if (allReachable) {
+                    break;
+                }
+            } else {
+                best.depth++;
+            }
+            addParents(commit, commitFlags, flags, queue);
+        }
+    }
+
+    /**
+     * Indicates whether the specified commit is reachable from all candidates with the fewest commits not
+     * reachable from them.
+     */
+    private static boolean isCoveredByBest(final List<Candidate> candidates, final int commitFlags) {
+        int bestDepth = Integer.MAX_VALUE;
+        int bestFlags = 0;
+        for (final Candidate candidate : candidates) {
+            if (candidate.depth < bestDepth) {
+                bestDepth = candidate.depth;
+                bestFlags = candidate.flag;
+            } else if (candidate.depth == bestDepth) {
+                bestFlags |= candidate.flag;
+            }
+        }
+        return (commitFlags & bestFlags) == bestFlags;
+    }
+
+    /**
+     * Propagates the flags of the specified commit to its parents and queues the parents that have not been
+     * seen before.
+     */
+    private void addParents(final GitCommit commit, final int commitFlags, final Map<String, Integer> flags,
+                            final CommitQueue queue) throws IOException {
+        for (final String parent : commit.parents()) {
+            final Integer parentFlags = flags.get(parent);
+            if (parentFlags == null || (parentFlags & SEEN) == 0) {
+                queue.add(readCommit(parent));
+            }
+            flags.merge(parent, commitFlags, (a, b) -> a | b);
+        }
+    }
+
+    /**
+     * Obtains the name of the tag used to describe each tagged commit.
+     *
+     * @return Map of hexadecimal commit identifiers to the names of their tags.
+     * @throws IOException if there was a problem reading the tags.
+     */
+    private Map<String, TagName> readTagNames() throws IOException {
+        final Map<String, TagName> tagsByCommit = new HashMap<>();
+        for (final Map.Entry<String, String> tag : new TreeMap<>(readRefs("refs/tags/")).entrySet()) {
+            final GitObject object = readObject(tag.getValue());
+            final boolean annotated = object.type() == OBJ_TAG;
+            final TagName name = new TagName(tag.getKey().substring("refs/tags/".length()),
+                                             annotated ? PRIORITY_ANNOTATED : PRIORITY_LIGHTWEIGHT,
+                                             annotated ? parseTaggerTime(object.content()) : 0);
+            final String taggedId = peel(tag.getValue());
+            final TagName existing = tagsByCommit.get(taggedId);
+            if (existing == null || existing.priority() < name.priority()
+                    || (name.priority() == PRIORITY_ANNOTATED && existing.priority() == PRIORITY_ANNOTATED
+                    && existing.time() < name.time())) {
+                tagsByCommit.put(taggedId, name);
+            }
+        }
+        return tagsByCommit;
+    }
+
+    /**
+     * Obtains the time at which an annotated tag was created.
+     *
+     * @param content  Content of the tag object
+     * @return Tagger time in seconds since the Unix Epoch, or 0 if the tag does not have a tagger.
+     */
+    private static long parseTaggerTime(final byte[] content) {
+        for (final String line : new String(content, StandardCharsets.UTF_8).split("\n")) {
+            if (line.isEmpty()) {
+                break;
+            }
+            if (line.startsWith("tagger ")) {
+                final String[] fields = line.substring(line.lastIndexOf('>') + 1).trim().split(" ");
+                try {
+                    return Long.parseLong(fields[0]);
+                } catch (final NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Indicates whether the working tree or the index differ from the specified commit, in the same manner as
+     * {@code git describe --dirty}. Untracked files are ignored. Files whose size and modification time match
+     * those recorded in the index are considered unchanged, unless they were modified during the same second
+     * the index was written. Other files are compared by computing their Git object identifier. Files marked as
+     * assume-unchanged or skip-worktree in the index are not compared. As with Git, a file whose size differs
+     * from the size recorded in the index is modified. When line ending normalization is configured (e.g.
+     * {@code core.autocrlf}), a file of the recorded size that differs from the index is compared again with its
+     * CRLF line endings converted to LF. When Git may convert files using external programs (e.g. the clean
+     * filter of Git LFS), such a file is compared by running {@code git status} instead.
+     *
+     * @param headId  Hexadecimal identifier of the HEAD commit or {@code null} if the repository has no commits
+     * @return {@code true} if there are uncommitted changes.
+     * @throws IOException if there was a problem reading the repository.
+     */
+    boolean isDirty(@Nullable final String headId) throws IOException {
+        final Path indexFile = this.gitDir.resolve("index");
+        if (!Files.isRegularFile(indexFile)) {
+            return headId != null && !readTree(readCommit(headId).tree(), "").isEmpty();
+        }
+
+        final GitIndex index = GitIndex.read(indexFile);
+        if (headId == null) {
+            return !index.entries().isEmpty();
+        }
+
+        // Compare the index with the HEAD commit, using the cached tree of the index if it is valid.
+        final String headTree = readCommit(headId).tree();
+        if (index.treeId() == null || !index.treeId().equals(headTree)) {
+            final Map<String, String> headFiles = readTree(headTree, "");
+            if (headFiles.size() != index.entries().size()) {
+                return true;
+            }
+            for (final GitIndex.Entry entry : index.entries()) {
+                if (entry.stage() != 0 || entry.intentToAdd() || !entry.id().equals(headFiles.get(entry.path()))) {
+                    return true;
+                }
+            }
+        }
+
+        // Compare the working tree with the index. The conversions applied by Git when adding a file are only
+        // determined when a file's content differs from the index.
+        final long indexTime = Files.getLastModifiedTime(indexFile).to(TimeUnit.SECONDS);
+        Conversions conversions = null;
+        for (final GitIndex.Entry entry : index.entries()) {
+            if (entry.stage() != 0 || entry.intentToAdd()) {
+                return true;
+            }
+            if (entry.assumeUnchanged() || entry.skipWorktree() || (entry.mode() & MODE_TYPE_MASK) == MODE_GITLINK) {
+                continue;
+            }
+            final Path file = this.workTree.resolve(entry.path());
+            if (isModified(file, entry, indexTime)) {
+                // As with Git, a file whose size differs from the size recorded in the index is modified, even if
+                // its content would be the same after conversion. The size is not recorded for some entries.
+                if (entry.size() != 0 && !sizeMatches(file, entry)) {
+                    return true;
+                }
+                if (conversions == null) {
+                    conversions = readConversions(index);
+                }
+                if (conversions.external()) {
+                    return isDirtyUsingGit();
+                }
+                if (!conversions.normalizeLineEndings() || !matchesNormalized(file, entry)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indicates whether the size of the specified working tree file matches the size recorded in its index entry.
+     *
+     * @param file  Working tree file
+     * @param entry  Index entry for the file
+     * @return {@code true} if the file is a regular file with the recorded size.
+     * @throws IOException if there was a problem reading the attributes of the file.
+     */
+    private static boolean sizeMatches(final Path file, final GitIndex.Entry entry) throws IOException {
+        return Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) && (Files.size(file) & 0xffffffffL) == entry.size();
+    }
+
+    /**
+     * Conversions that Git applies to the content of working tree files when adding them to the repository.
+     *
+     * @param normalizeLineEndings  Whether CRLF line endings may be converted to LF, as configured by the
+     *      {@code core.autocrlf} setting or the {@code text}, {@code eol} or {@code crlf} attributes
+     * @param external  Whether content may be converted by an external program or in a way that is not
+     *      supported by this class, as configured by the {@code filter}, {@code ident} or
+     *      {@code working-tree-encoding} attributes (e.g. for Git LFS)
+     */
+    private record Conversions(boolean normalizeLineEndings, boolean external) {
+    }
+
+    /**
+     * Determines the conversions that may be applied to working tree files. The settings are read from the
+     * system, user and repository configuration files, and the attributes from the {@code .gitattributes} files
+     * in the index, the repository's {@code info/attributes} file and the user's attributes file. The paths to
+     * which the attributes apply are not considered, so a conversion configured for any path is assumed to
+     * apply to all files.
+     *
+     * @param index  Index of the repository
+     * @return Conversions that may be applied.
+     * @throws IOException if there was a problem reading the configuration or attributes.
+     */
+    private Conversions readConversions(final GitIndex index) throws IOException {
+        final String home = System.getProperty("user.home");
+        final String xdgConfigHome = System.getenv("XDG_CONFIG_HOME");
+        final Path xdgDir = xdgConfigHome == null || xdgConfigHome.isEmpty()
+                            ? Path.of(home, ".config", "git")
+                            : Path.of(xdgConfigHome, "git");
+
+        final Map<String, String> config = new HashMap<>();
+        readConfig(Path.of("/etc/gitconfig"), config);
+        readConfig(xdgDir.resolve("config"), config);
+        readConfig(Path.of(home, ".gitconfig"), config);
+        readConfig(this.commonDir.resolve("config"), config);
+
+        final String autocrlf = config.getOrDefault("core.autocrlf", "false").toLowerCase(Locale.ROOT);
+        boolean normalize = "true".equals(autocrlf) || "input".equals(autocrlf);
+        boolean external = false;
+
+        final List<Path> attributesFiles = new ArrayList<>();
+        attributesFiles.add(this.commonDir.resolve("info/attributes"));
+        final String attributesFile = config.get("core.attributesfile");
+        attributesFiles.add(attributesFile == null
+                            ? xdgDir.resolve("attributes")
+                            : Path.of(attributesFile.startsWith("~/") ? home + attributesFile.substring(1) : attributesFile));
+        for (final GitIndex.Entry entry : index.entries()) {
+            if (entry.path().equals(".gitattributes") || entry.path().endsWith("/.gitattributes")) {
+                attributesFiles.add(this.workTree.resolve(entry.path()));
+            }
+        }
+
+        for (final Path file : attributesFiles) {
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            for (final String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                final String[] tokens = line.strip().split("\\s+");
+                if (tokens[0].isEmpty() || tokens[0].startsWith("#")) {
+                    continue;
+                }
+                for (int i = 1; i < tokens.length; i++) {
+                    final String name = tokens[i].split("=", 2)[0];
+                    if ("text".equals(name) || "eol".equals(name) || "crlf".equals(name)) {
+                        normalize = true;
+                    } else if ("filter".equals(name) || "ident".equals(name) || "working-tree-encoding".equals(name)) {
+                        external = true;
+                    }
+                }
+            }
+        }
+        return new Conversions(normalize, external);
+    }
+
+    /**
+     * Indicates whether the specified working tree file matches its index entry after converting its CRLF line
+     * endings to LF, as Git does for text files when line ending normalization is configured. Files containing
+     * NUL bytes are considered binary and are not converted.
+     *
+     * @param file  Working tree file
+     * @param entry  Index entry for the file
+     * @return {@code true} if the file is a regular file whose normalized content matches the index entry.
+     * @throws IOException if there was a problem reading the file.
+     */
+    private static boolean matchesNormalized(final Path file, final GitIndex.Entry entry) throws IOException {
+        if ((entry.mode() & MODE_TYPE_MASK) == MODE_SYMLINK || !Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+
+        long size = 0;
+        long crlfCount = 0;
+        try (InputStream ins = new BufferedInputStream(Files.newInputStream(file))) {
+            int previous = -1;
+            int current;
+            while ((current = ins.read()) != -1) {
+                if (current == 0) {
+                    return false;
+                }
+                if (current == '\n' && previous == '\r') {
+                    crlfCount++;
+                }
+                size++;
+                previous = current;
+            }
+        }
+        if (crlfCount == 0) {
+            return false;
+        }
+
+        final MessageDigest digest = createObjectDigest();
+        digest.update(("blob " + (size - crlfCount) + '\0').getBytes(StandardCharsets.US_ASCII));
+        try (InputStream ins = new BufferedInputStream(Files.newInputStream(file))) {
+            boolean pendingCr = false;
+            int current;
+            while ((current = ins.read()) != -1) {
+                if (pendingCr && current != '\n') {
+                    digest.update((byte)'\r');
+                }
+                pendingCr = current == '\r';
+                if (!pendingCr) {
+                    digest.update((byte)current);
+                }
+            }
+            if (pendingCr) {
+                digest.update((byte)'\r');
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest()).equals(entry.id());
+    }
+
+    /**
+     * Determines whether the working tree or index differ from HEAD by running {@code git status}. This is only
+     * used when Git may apply conversions to the content of files that are not supported by this class, such
+     * as the clean filter of Git LFS.
+     *
+     * @return {@code true} if there are uncommitted changes or {@code git} could not be run.
+     * @throws IOException if the command was interrupted.
+     */
+    private boolean isDirtyUsingGit() throws IOException {
+        try {
+            final Process process = new ProcessBuilder("git", "status", "--porcelain", "--untracked-files=no",
+                                                       "--ignore-submodules")
+                    .directory(this.workTree.toFile())
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            final byte[] output = process.getInputStream().readAllBytes();
+            return process.waitFor() != 0 || output.length > 0;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running git status", ex);
+        } catch (final IOException ex) {
+            return true;
+        }
+    }
+
+    /**
+     * Indicates whether the specified working tree file differs from its index entry.
+     *
+     * @param file  Working tree file
+     * @param entry  Index entry for the file
+     * @param indexTime  Modification time of the index in seconds since the Unix Epoch
+     * @return {@code true} if the file is modified or deleted.
+     * @throws IOException if there was a problem reading the file.
+     */
+    private static boolean isModified(final Path file, final GitIndex.Entry entry, final long indexTime)
+            throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (final NoSuchFileException ex) {
+            return true;
+        }
+
+        final boolean isSymlink = (entry.mode() & MODE_TYPE_MASK) == MODE_SYMLINK;
+        if (isSymlink != attributes.isSymbolicLink()) {
+            return true;
+        }
+
+        final Instant modified = attributes.lastModifiedTime().toInstant();
+        final boolean statMatches = (attributes.size() & 0xffffffffL) == entry.size()
+                && modified.getEpochSecond() == entry.mtimeSeconds()
+                && (entry.mtimeNanos() == 0 || modified.getNano() == entry.mtimeNanos());
+        if (statMatches && entry.mtimeSeconds() < indexTime) {
+            return false;
+        }
+
+        final MessageDigest digest = createObjectDigest();
+        if (isSymlink) {
+            final byte[] target = Files.readSymbolicLink(file).toString().getBytes(StandardCharsets.UTF_8);
+            digest.update(("blob " + target.length + '\0').getBytes(StandardCharsets.US_ASCII));
+            digest.update(target);
+        } else {
+            digest.update(("blob " + attributes.size() + '\0').getBytes(StandardCharsets.US_ASCII));
+            try (InputStream ins = new DigestInputStream(Files.newInputStream(file), digest)) {
+                ins.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+        return !HexFormat.of().formatHex(digest.digest()).equals(entry.id());
+    }
+
+    /**
+     * Reads the specified tree and its subtrees.
+     *
+     * @param treeId  Hexadecimal identifier of the tree
+     * @param prefix  Path of the tree relative to the root of the repository, ending with a slash, or the empty
+     *      string for the root tree
+     * @return Map of the paths of the files in the tree to the hexadecimal identifiers of their objects.
+     * @throws IOException if there was a problem reading the tree.
+     */
+    private Map<String, String> readTree(final String treeId, final String prefix) throws IOException {
+        final GitObject tree = readObject(treeId);
+        if (tree.type() != OBJ_TREE) {
+            throw new IOException("Object " + treeId + " is not a tree");
+        }
+
+        final Map<String, String> files = new HashMap<>();
+        final byte[] content = tree.content();
+        int pos = 0;
+        while (pos < content.length) {
+            final int space = indexOf(content, (byte)' ', pos);
+            final int nul = indexOf(content, (byte)0, space);
+            final int mode = Integer.parseInt(new String(content, pos, space - pos, StandardCharsets.US_ASCII), 8);
+            final String path = prefix + new String(content, space + 1, nul - space - 1, StandardCharsets.UTF_8);
+            final String id = HexFormat.of().formatHex(content, nul + 1, nul + 1 + ID_LENGTH);
+            if ((mode & MODE_TYPE_MASK) == MODE_TREE) {
+                files.putAll(readTree(id, path + '/'));
+            } else {
+                files.put(path, id);
+            }
+            pos = nul + 1 + ID_LENGTH;
+        }
+        return files;
+    }
+
+    private static int indexOf(final byte[] data, final byte value, final int start) throws IOException {
+        for (int i = start; i < data.length; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        throw new IOException("Malformed Git tree");
+    }
+
+    private static MessageDigest createObjectDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-1 message digest not available", ex);
+        }
+    }
+
+    /**
+     * Reads the object with the specified identifier from either the loose objects or the pack files.
+     *
+     * @param objectId  Hexadecimal identifier of the object
+     * @return Type and content of the object.
+     * @throws IOException if the object could not be found or read.
+     */
+    GitObject readObject(final String objectId) throws IOException {
+        final Path loose = this.commonDir.resolve("objects").resolve(objectId.substring(0, 2))
+                                         .resolve(objectId.substring(2));
+        if (Files.isRegularFile(loose)) {
+            return readLooseObject(loose);
+        }
+
+        final byte[] id = HexFormat.of().parseHex(objectId);
+        for (final Path index : packIndexes()) {
+            final long offset = findInPackIndex(index, id);
+            if (offset >= 0) {
+                final String indexName = index.getFileName().toString();
+                final Path pack = index.resolveSibling(indexName.substring(0, indexName.length() - 4) + ".pack");
+                try (RandomAccessFile packFile = new RandomAccessFile(pack.toFile(), "r")) {
+                    return readPackedObject(packFile, offset);
+                }
+            }
+        }
+
+        throw new IOException("Git object " + objectId + " not found");
+    }
+
+    private static GitObject readLooseObject(final Path path) throws IOException {
+        final byte[] data;
+        try (InputStream ins = new InflaterInputStream(Files.newInputStream(path))) {
+            data = ins.readAllBytes();
+        }
+
+        int pos = 0;
+        while (pos < data.length && data[pos] != 0) {
+            pos++;
+        }
+        final String header = new String(data, 0, pos, StandardCharsets.US_ASCII);
+        final int space = header.indexOf(' ');
+        final int type = switch (space == -1 ? header : header.substring(0, space)) {
+            case "commit" -> OBJ_COMMIT;
+            case "tree" -> OBJ_TREE;
+            case "blob" -> OBJ_BLOB;
+            case "tag" -> OBJ_TAG;
+            default -> throw new IOException("Unrecognized Git object " + path);
+        };
+        final byte[] content = new byte[data.length - pos - 1];
+        System.arraycopy(data, pos + 1, content, 0, content.length);
+        return new GitObject(type, content);
+    }
+
+    private GitObject readPackedObject(final RandomAccessFile packFile, final long offset) throws IOException {
+        packFile.seek(offset);
+        int c = packFile.readUnsignedByte();
+        final int type = (c >> 4) & 0x07;
+        long size = c & 0x0f;
+        int shift = 4;
+        while ((c & 0x80) != 0) {
+            c = packFile.readUnsignedByte();
+            size |= (long)(c & 0x7f) << shift;
+            shift += 7;
+        }
+
+        if (type == OBJ_OFS_DELTA) {
+            c = packFile.readUnsignedByte();
+            long baseDistance = c & 0x7f;
+            while ((c & 0x80) != 0) {
+                c = packFile.readUnsignedByte();
+                baseDistance = ((baseDistance + 1) << 7) | (c & 0x7f);
+            }
+            final long dataStart = packFile.getFilePointer();
+            final GitObject base = readPackedObject(packFile, offset - baseDistance);
+            packFile.seek(dataStart);
+            return new GitObject(base.type(), applyDelta(base.content(), inflate(packFile, size)));
+        }
+
+        if (type == OBJ_REF_DELTA) {
+            final byte[] baseId = new byte[ID_LENGTH];
+            packFile.readFully(baseId);
+            final byte[] delta = inflate(packFile, size);
+            final GitObject base = readObject(HexFormat.of().formatHex(baseId));
+            return new GitObject(base.type(), applyDelta(base.content(), delta));
+        }
+
+        return new GitObject(type, inflate(packFile, size));
+    }
+
+    private static byte[] inflate(final RandomAccessFile packFile, final long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Git object too large");
+        }
+
+        final byte[] result = new byte[(int)size];
+        final byte[] buffer = new byte[8192];
+        final Inflater inflater = new Inflater();
+        try {
+            final InputStream ins = Channels.newInputStream(packFile.getChannel());
+            int produced = 0;
+            while (produced < result.length) {
+                if (inflater.finished() || inflater.needsDictionary()) {
+                    throw new IOException("Git object size mismatch");
+                }
+                if (inflater.needsInput()) {
+                    final int count = ins.read(buffer);
+                    if (count < 0) {
+                        throw new IOException("Unexpected end of Git pack file");
+                    }
+                    inflater.setInput(buffer, 0, count);
+                }
+                produced += inflater.inflate(result, produced, result.length - produced);
+            }
+            return result;
+        } catch (final DataFormatException ex) {
+            throw new IOException("Corrupt Git pack file", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] applyDelta(final byte[] base, final byte[] delta) throws IOException {
+        final int[] pos = { 0 };
+        final long baseSize = readDeltaSize(delta, pos);
+        final long resultSize = readDeltaSize(delta, pos);
+        if (baseSize != base.length) {
+            throw new IOException("Git delta base size mismatch");
+        }
+
+        final ByteArrayOutputStream result = new ByteArrayOutputStream((int)resultSize);
+        while (pos[0] < delta.length) {
+            final int op = delta[pos[0]++] & 0xff;
+            if ((op & 0x80) != 0) {
+                int copyOffset = 0;
+                int copySize = 0;
+                for (int i = 0; i < 4; i++) {
+                    if ((op & (1 << i)) != 0) {
+                        copyOffset |= (delta[pos[0]++] & 0xff) << (8 * i);
+                    }
+                }
+                for (int i = 0; i < 3; i++) {
+                    if ((op & (0x10 << i)) != 0) {
+                        copySize |= (delta[pos[0]++] & 0xff) << (8 * i);
+                    }
+                }
+                if (copySize == 0) {
+                    copySize = 0x10000;
+                }
+                result.write(base, copyOffset, copySize);
+            } else if (op != 0) {
+                result.write(delta, pos[0], op);
+                pos[0] += op;
+            } else {
+                throw new IOException("Invalid Git delta instruction");
+            }
+        }
+
+        if (result.size() != resultSize) {
+            throw new IOException("Git delta result size mismatch");
+        }
+        return result.toByteArray();
+    }
+
+    private static long readDeltaSize(final byte[] delta, final int[] pos) {
+        long size = 0;
+        int shift = 0;
+        int c;
+        do {
+            c = delta[pos[0]++] & 0xff;
+            size |= (long)(c & 0x7f) << shift;
+            shift += 7;
+        } while ((c & 0x80) != 0);
+        return size;
+    }
+
+    private static long findInPackIndex(final Path index, final byte[] id) throws IOException {
+        try (RandomAccessFile indexFile = new RandomAccessFile(index.toFile(), "r")) {
+            if (indexFile.readInt() != IDX_MAGIC || indexFile.readInt() != 2) {
+                return -1;
+            }
+
+            final int firstByte = id[0] & 0xff;
+            final long fanoutStart = 8;
+            final int low;
+            if (firstByte == 0) {
+                low = 0;
+            } else {
+                indexFile.seek(fanoutStart + 4L * (firstByte - 1));
+                low = indexFile.readInt();
+            }
+            indexFile.seek(fanoutStart + 4L * firstByte);
+            final int high = indexFile.readInt();
+            indexFile.seek(fanoutStart + 4L * 255);
+            final int count = indexFile.readInt();
+
+            final long idsStart = fanoutStart + 4L * 256;
+            final byte[] candidate = new byte[ID_LENGTH];
+            int lo = low;
+            int hi = high - 1;
+            while (lo <= hi) {
+                final int mid = (lo + hi) >>> 1;
+                indexFile.seek(idsStart + (long)ID_LENGTH * mid);
+                indexFile.readFully(candidate);
+                final int cmp = compareIds(candidate, id);
+                if (cmp < 0) {
+                    lo = mid + 1;
+                } else if (cmp > 0) {
+                    hi = mid - 1;
+                } else {
+                    final long offsetsStart = idsStart + (long)ID_LENGTH * count + 4L * count;
+                    indexFile.seek(offsetsStart + 4L * mid);
+                    final int offset = indexFile.readInt();
+                    if ((offset & 0x80000000) == 0) {
+                        return offset;
+                    }
+                    indexFile.seek(offsetsStart + 4L * count + 8L * (offset & 0x7fffffff));
+                    return indexFile.readLong();
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static int compareIds(final byte[] id1, final byte[] id2) {
+        for (int i = 0; i < ID_LENGTH; i++) {
+            final int cmp = Integer.compare(id1[i] & 0xff, id2[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private List<Path> packIndexes() throws IOException {
+        if (this.packIndexes == null) {
+            final List<Path> indexes = new ArrayList<>();
+            final Path packDir = this.commonDir.resolve("objects/pack");
+            if (Files.isDirectory(packDir)) {
+                try (var paths = Files.list(packDir)) {
+                    paths.filter(path -> path.getFileName().toString().endsWith(".idx"))
+                         .sorted()
+                         .forEach(indexes::add);
+                }
+            }
+            this.packIndexes = indexes;
+        }
+        return this.packIndexes;
+    }
+
+    private Map<String, String> readPackedRefs() throws IOException {
+        if (this.packedRefs == null) {
+            final Map<String, String> refs = new HashMap<>();
+            final Path packedRefsFile = this.commonDir.resolve("packed-refs");
+            if (Files.isRegularFile(packedRefsFile)) {
+                for (final String line : Files.readAllLines(packedRefsFile, StandardCharsets.UTF_8)) {
+                    if (line.isEmpty() || line.charAt(0) == '#' || line.charAt(0) == '^') {
+                        continue;
+                    }
+                    final int space = line.indexOf(' ');
+                    if (space != -1) {
+                        refs.put(line.substring(space + 1).trim(), line.substring(0, space));
+                    }
+                }
+            }
+            this.packedRefs = refs;
+        }
+        return this.packedRefs;
+    }
+
+    @Nullable
+    private static String readRefFile(final Path path) throws IOException {
+        return Files.isRegularFile(path) ? Files.readString(path, StandardCharsets.UTF_8).trim() : null;
+    }
+
+    /**
+     * Tag considered when describing a commit.
+     *
+     * @param name  Name of the tag without the refs/tags/ prefix
+     * @param priority  Priority of the tag, which is higher for annotated tags than for lightweight tags
+     * @param time  Creation time of an annotated tag in seconds since the Unix Epoch, or 0 for a lightweight tag
+     */
+    private record TagName(String name, int priority, long time) {
+    }
+
+    /**
+     * Tagged commit that is a candidate for describing a commit.
+     */
+    private static final class Candidate {
+        private final String name;
+        private final int flag;
+        private int depth;
+
+        Candidate(final String name, final int flag, final int depth) {
+            this.name = name;
+            this.flag = flag;
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * Queue of commits to be walked, ordered by descending commit time. Commits with the same commit time are
+     * walked in the order in which they were queued, as with {@code git}.
+     */
+    private static final class CommitQueue implements Iterable<GitCommit> {
+        private final PriorityQueue<Queued> queue = new PriorityQueue<>(
+                Comparator.comparing(Queued::commit, GitCommit.NEWEST_FIRST).thenComparingLong(Queued::sequence));
+        private long sequence;
+
+        void add(final GitCommit commit) {
+            this.queue.add(new Queued(commit, this.sequence++));
+        }
+
+        GitCommit remove() {
+            return this.queue.remove().commit();
+        }
+
+        boolean isEmpty() {
+            return this.queue.isEmpty();
+        }
+
+        @Override
+        public Iterator<GitCommit> iterator() {
+            return this.queue.stream().map(Queued::commit).iterator();
+        }
+
+        private record Queued(GitCommit commit, long sequence) {
+        }
+    }
+
+    /**
+     * Type and content of a Git object.
+     *
+     * @param type  Git object type number (e.g. 1 for a commit)
+     * @param content  Uncompressed content of the object
+     */
+    record GitObject(int type, byte[] content) {
+    }
+
+    /**
+     * Information about a Git commit.
+     *
+     * @param id  Hexadecimal identifier of the commit
+     * @param tree  Hexadecimal identifier of the commit's tree
+     * @param parents  Hexadecimal identifiers of the parent commits
+     * @param commitTime  Committer time in milliseconds since the Unix Epoch
+     */
+    record GitCommit(String id, String tree, List<String> parents, long commitTime) {
+
+        /**
+         * Orders commits by descending commit time.
+         */
+        static final Comparator<GitCommit> NEWEST_FIRST = Comparator.comparingLong(GitCommit::commitTime).reversed();
+
+        /**
+         * Parses the content of a commit object.
+         *
+         * @param id  Hexadecimal identifier of the commit
+         * @param content  Uncompressed content of the commit object
+         * @return Commit information.
+         * @throws IOException if the commit does not have a committer.
+         */
+        static GitCommit parse(final String id, final byte[] content) throws IOException {
+            final List<String> parents = new ArrayList<>();
+            String tree = null;
+            long commitTime = -1;
+            for (final String line : new String(content, StandardCharsets.UTF_8).split("\n")) {
+                if (line.isEmpty()) {
+                    break;
+                }
+                if (line.startsWith("tree ")) {
+                    tree = line.substring("tree ".length()).trim();
+                } else if (line.startsWith("parent ")) {
+                    parents.add(line.substring("parent ".length()).trim());
+                } else if (line.startsWith("committer ")) {
+                    final String[] fields = line.substring(line.lastIndexOf('>') + 1).trim().split(" ");
+                    commitTime = Long.parseLong(fields[0]) * 1000L;
+                }
+            }
+            if (tree == null || commitTime < 0) {
+                throw new IOException("Commit " + id + " does not have a tree or committer");
+            }
+            return new GitCommit(id, tree, List.copyOf(parents), commitTime);
+        }
+    }
+}
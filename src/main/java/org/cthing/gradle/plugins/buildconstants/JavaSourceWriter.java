@@ -0,0 +1,428 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+
+/**
+ * Writes the Java source code for a class of constants.
+ */
+final class JavaSourceWriter {
+
+    /**
+     * Comment identifying a file as generated by this plugin.
+     */
+    static final String GENERATED_HEADER = "// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.";
+
+    // Length of each string literal holding part of a compressed value. The encoded value consists of ASCII
+    // characters, so each literal is well within the class file limit of 65535 bytes for a string constant.
+    private static final int CHUNK_LENGTH = 16_384;
+
+    private JavaSourceWriter() {
+    }
+
+    /**
+     * Writes the Java source code for the specified class.
+     *
+     * @param writer  Writes the source file
+     * @param constantsClass  Class to write
+     */
+    static void write(final PrintWriter writer, final ConstantsClass constantsClass) {
+        final String modifier = writeClassStart(writer, constantsClass);
+
+        boolean hasInitializer = false;
+        boolean hasCompressed = false;
+        for (final Constant constant : constantsClass.constants()) {
+            if (constant.compressed()) {
+                hasCompressed = true;
+            } else if (constant.inlined()) {
+                writer.println("    " + modifier + "static final " + constant.type().getJavaName() + ' '
+                                       + constant.name() + " = " + formatValue(constant) + ';');
+            } else {
+                writer.println("    " + modifier + "static final " + constant.type().getJavaName() + ' '
+                                       + constant.name() + ';');
+                hasInitializer = true;
+            }
+        }
+
+        if (hasInitializer) {
+            writer.format("%n    static {%n");
+            for (final Constant constant : constantsClass.constants()) {
+                if (!constant.inlined() && !constant.compressed()) {
+                    writer.println("        " + constant.name() + " = " + formatValue(constant) + ';');
+                }
+            }
+            writer.format("    }%n");
+        }
+
+        if (hasCompressed) {
+            writeCompressedConstants(writer, constantsClass, modifier);
+        }
+
+        writeLookupMethods(writer, constantsClass, modifier);
+        writeClassEnd(writer, constantsClass);
+    }
+
+    /**
+     * Writes the Java source code for the specified class with the values of its constants loaded from a
+     * properties resource. The values are loaded when the class is initialized, which happens the first time one
+     * of its constants is accessed. The source code depends only on the names and types of the constants and not
+     * on their values, so that changing a value only changes the resource. The resource is located in the same
+     * package as the class and is named by {@link PropertiesWriter#getResourceName(ConstantsClass)}.
+     *
+     * @param writer  Writes the source file
+     * @param constantsClass  Class to write
+     */
+    static void writeResourceLoader(final PrintWriter writer, final ConstantsClass constantsClass) {
+        final String modifier = writeClassStart(writer, constantsClass);
+        final String resourceName = PropertiesWriter.getResourceName(constantsClass);
+
+        for (final Constant constant : constantsClass.constants()) {
+            writer.println("    " + modifier + "static final " + constant.type().getJavaName() + ' '
+                                   + constant.name() + ';');
+        }
+
+        writer.format("""
+
+                          static {
+                              final java.util.Properties values = new java.util.Properties();
+                              try (java.io.InputStream ins = %1$s.class.getResourceAsStream("%2$s")) {
+                                  if (ins == null) {
+                                      throw new IllegalStateException("Constants resource %2$s not found");
+                                  }
+                                  values.load(ins);
+                              } catch (final java.io.IOException ex) {
+                                  throw new IllegalStateException("Could not load constants resource %2$s", ex);
+                              }
+
+                      """, constantsClass.className(), resourceName);
+
+        for (final Constant constant : constantsClass.constants()) {
+            final String value = "values.getProperty(\"" + constant.name() + "\")";
+            writer.println("        " + constant.name() + " = " + switch (constant.type()) {
+                case INT -> "Integer.parseInt(" + value + ")";
+                case LONG -> "Long.parseLong(" + value + ")";
+                case BOOLEAN -> "Boolean.parseBoolean(" + value + ")";
+                case STRING -> value;
+            } + ';');
+        }
+
+        writer.format("    }%n");
+
+        writeLookupMethods(writer, constantsClass, modifier);
+        writeClassEnd(writer, constantsClass);
+    }
+
+    /**
+     * Writes the accessor methods for the compressed constants of the specified class. The value of each
+     * compressed constant is deflated, Base64 encoded and split into several string literals, which allows values
+     * larger than the class file limit for a string constant. Each value is held by its own nested class, so that
+     * the value is only decoded when its accessor method is first called and values that are never accessed do
+     * not occupy the heap.
+     *
+     * @param writer  Writes the source file
+     * @param constantsClass  Class to write
+     * @param modifier  Access modifier for the accessor methods
+     */
+    private static void writeCompressedConstants(final PrintWriter writer, final ConstantsClass constantsClass,
+                                                 final String modifier) {
+        for (final Constant constant : constantsClass.constants()) {
+            if (constant.compressed()) {
+                writer.format("""
+
+                                  %1$sstatic String %2$s() {
+                                      return %2$s_Holder.VALUE;
+                                  }
+
+                                  private static final class %2$s_Holder {
+                                      static final String VALUE = decompress(new String[] {
+                              """, modifier, constant.name());
+                for (final String chunk : compress(constant.value().toString())) {
+                    writer.println("            \"" + chunk + "\",");
+                }
+                writer.format("""
+                                      });
+                                  }
+                              """);
+            }
+        }
+
+        writer.format("""
+
+                          private static String decompress(final String[] chunks) {
+                              final StringBuilder encoded = new StringBuilder();
+                              for (final String chunk : chunks) {
+                                  encoded.append(chunk);
+                              }
+                              final byte[] compressed = java.util.Base64.getDecoder().decode(encoded.toString());
+                              final java.util.zip.Inflater inflater = new java.util.zip.Inflater();
+                              try {
+                                  inflater.setInput(compressed);
+                                  final java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream(compressed.length * 4);
+                                  final byte[] buffer = new byte[8192];
+                                  while (!inflater.finished()) {
+                                      final int count = inflater.inflate(buffer);
+                                      if (count == 0 && inflater.needsInput()) {
+                                          throw new IllegalStateException("Truncated compressed constant");
+                                      }
+                                      out.write(buffer, 0, count);
+                                  }
+                                  return new String(out.toByteArray(), java.nio.charset.StandardCharsets.UTF_8);
+                              } catch (final java.util.zip.DataFormatException ex) {
+                                  throw new IllegalStateException("Could not decompress constant", ex);
+                              } finally {
+                                  inflater.end();
+                              }
+                          }
+                      """);
+    }
+
+    /**
+     * Compresses the specified value for writing as a compressed constant. The UTF-8 encoding of the value is
+     * deflated, encoded using Base64 and split into chunks. The compression is deterministic, so the same value
+     * always results in the same chunks.
+     *
+     * @param value  Value to compress
+     * @return Chunks of the encoded compressed value.
+     */
+    static List<String> compress(final String value) {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+            out.write(value.getBytes(StandardCharsets.UTF_8));
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            deflater.end();
+        }
+
+        final String encoded = Base64.getEncoder().encodeToString(compressed.toByteArray());
+        final List<String> chunks = new ArrayList<>();
+        for (int start = 0; start < encoded.length(); start += CHUNK_LENGTH) {
+            chunks.add(encoded.substring(start, Math.min(start + CHUNK_LENGTH, encoded.length())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Writes the header, package declaration and class declaration for the specified class.
+     *
+     * @param writer  Writes the source file
+     * @param constantsClass  Class to write
+     * @return Access modifier for the class and its constants followed by a space, or the empty string for
+     *      package access.
+     */
+    private static String writeClassStart(final PrintWriter writer, final ConstantsClass constantsClass) {
+        final String modifier = constantsClass.access() == SourceAccess.PUBLIC ? "public " : "";
+
+        writer.format("""
+                      //
+                      %s
+                      //
+
+                      package %s;
+
+                      @SuppressWarnings("all")
+                      %sfinal class %s {
+
+                      """, GENERATED_HEADER, constantsClass.packageName(), modifier, constantsClass.className());
+
+        return modifier;
+    }
+
+    /**
+     * Writes methods to look up the constants of the specified class by name, if requested for the class. The
+     * {@code get} method uses a string switch, which is compiled to a hash based lookup, and returns {@code null}
+     * for an unknown or {@code null} name. The {@code asMap} method returns an unmodifiable map that is created
+     * once when it is first requested. The generated code only requires Java 7 and does not use reflection.
+     * Integer and long values are boxed once, in a nested holder class, so that looking up a number does not
+     * allocate. When the constants are split into several classes, the methods also look up the constants in the
+     * other parts.
+     *
+     * @param writer  Writes the source file
+     * @param constantsClass  Class to write
+     * @param modifier  Access modifier for the methods
+     */
+    private static void writeLookupMethods(final PrintWriter writer, final ConstantsClass constantsClass,
+                                           final String modifier) {
+        if (!constantsClass.lookup()) {
+            return;
+        }
+
+        writer.format("""
+
+                          %sstatic Object get(final String name) {
+                              if (name == null) {
+                                  return null;
+                              }
+                              switch (name) {
+                      """, modifier);
+        for (final Constant constant : constantsClass.constants()) {
+            writer.println("            case \"" + constant.name() + "\": return " + boxedReference(constant) + ';');
+        }
+
+        final List<String> parts = constantsClass.parts();
+        if (parts.isEmpty()) {
+            writer.format("""
+                                      default: return null;
+                                  }
+                          """);
+        } else {
+            writer.format("""
+                                      default: break;
+                                  }
+                                  Object value = %s.get(name);
+                          """, parts.get(0));
+            for (final String part : parts.subList(1, parts.size())) {
+                writer.format("""
+                                      if (value == null) {
+                                          value = %s.get(name);
+                                      }
+                              """, part);
+            }
+            writer.format("        return value;%n");
+        }
+
+        writer.format("""
+                          }
+
+                          %sstatic java.util.Map<String, Object> asMap() {
+                              return ConstantsMap.MAP;
+                          }
+
+                          private static final class ConstantsMap {
+                              static final java.util.Map<String, Object> MAP;
+
+                              static {
+                                  final java.util.Map<String, Object> map = new java.util.LinkedHashMap<String, Object>();
+                      """, modifier);
+        for (final Constant constant : constantsClass.constants()) {
+            writer.println("            map.put(\"" + constant.name() + "\", " + boxedReference(constant) + ");");
+        }
+        for (final String part : parts) {
+            writer.println("            map.putAll(" + part + ".asMap());");
+        }
+        writer.format("""
+                                  MAP = java.util.Collections.unmodifiableMap(map);
+                              }
+                          }
+                      """);
+
+        final List<Constant> numbers = constantsClass.constants().stream().filter(JavaSourceWriter::isNumber).toList();
+        if (!numbers.isEmpty()) {
+            writer.format("""
+
+                              private static final class BoxedValues {
+                          """);
+            for (final Constant constant : numbers) {
+                writer.format("        static final %s %s = %s.%s;%n",
+                              constant.type() == Constant.Type.INT ? "Integer" : "Long", constant.name(),
+                              constantsClass.className(), constant.name());
+            }
+            writer.format("    }%n");
+        }
+    }
+
+    /**
+     * Indicates whether the specified constant is a number, which is boxed when it is looked up.
+     *
+     * @param constant  Constant to test
+     * @return {@code true} if the constant is an integer or long.
+     */
+    static boolean isNumber(final Constant constant) {
+        return constant.type() == Constant.Type.INT || constant.type() == Constant.Type.LONG;
+    }
+
+    /**
+     * Obtains the Java expression that obtains the value of the specified constant as an object within its class.
+     *
+     * @param constant  Constant whose value is obtained
+     * @return The boxed value of a number held by the {@code BoxedValues} class, otherwise the same expression as
+     *      {@link #reference(Constant)}.
+     */
+    private static String boxedReference(final Constant constant) {
+        return isNumber(constant) ? "BoxedValues." + constant.name() : reference(constant);
+    }
+
+    /**
+     * Obtains the Java expression that obtains the value of the specified constant within its class.
+     *
+     * @param constant  Constant whose value is obtained
+     * @return The name of the constant, or a call to its accessor method if it is compressed.
+     */
+    private static String reference(final Constant constant) {
+        return constant.compressed() ? constant.name() + "()" : constant.name();
+    }
+
+    /**
+     * Writes the private constructor and closes the specified class.
+     *
+     * @param writer  Writes the source file
+     * @param constantsClass  Class to write
+     */
+    private static void writeClassEnd(final PrintWriter writer, final ConstantsClass constantsClass) {
+        writer.format("""
+
+                          private %s() { }
+                      }
+                      """, constantsClass.className());
+    }
+
+    /**
+     * Formats the value of the specified constant as a Java literal.
+     *
+     * @param constant  Constant whose value is to be formatted
+     * @return Java literal for the value of the constant.
+     */
+    static String formatValue(final Constant constant) {
+        return switch (constant.type()) {
+            case INT, BOOLEAN -> constant.value().toString();
+            case LONG -> constant.value() + "L";
+            case STRING -> formatString(constant.value().toString());
+        };
+    }
+
+    /**
+     * Formats the specified string as a Java string literal. Quotes, backslashes and control characters are
+     * escaped. Line feeds and carriage returns are written as {@code \n} and {@code \r} rather than as Unicode
+     * escapes, because Unicode escapes are translated before string literals are parsed.
+     *
+     * @param str  String to format
+     * @return Java string literal for the string.
+     */
+    private static String formatString(final String str) {
+        final StringBuilder literal = new StringBuilder(str.length() + 2);
+        literal.append('"');
+        for (int i = 0; i < str.length(); i++) {
+            final char ch = str.charAt(i);
+            switch (ch) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (ch < 0x20) {
+                        literal.append(String.format("\\u%04x", (int)ch));
+                    } else {
+                        literal.append(ch);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
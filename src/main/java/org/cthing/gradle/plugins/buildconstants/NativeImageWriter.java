@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Writes the GraalVM Native Image configuration for the generated constants classes. The configuration is
+ * written to a directory under META-INF/native-image, where it is found automatically by the native-image tool
+ * when the classes are on the image classpath. All generated classes, including the nested classes holding
+ * compressed values and lookup maps, are initialized at image build time, so the constants are stored in the
+ * image heap and their initialization costs nothing at startup. The generated classes do not use reflection, so
+ * no reflection configuration is needed. When the values are loaded from a properties resource, the resource is
+ * included in the image.
+ */
+final class NativeImageWriter {
+
+    /**
+     * Directory, relative to a resources directory, containing the configuration directories of all constants
+     * generation tasks.
+     */
+    static final String BASE_DIRECTORY = "META-INF/native-image/org.cthing.build-constants";
+
+    private NativeImageWriter() {
+    }
+
+    /**
+     * Obtains the directory for the configuration of the classes generated by a task, relative to a resources
+     * directory. The directory is named after the main class of the task so that the configurations of several
+     * tasks in the same classpath do not conflict.
+     *
+     * @param mainClassname  Fully qualified name of the main constants class of the task
+     * @return Configuration directory.
+     */
+    static String getDirectory(final String mainClassname) {
+        return BASE_DIRECTORY + '/' + mainClassname;
+    }
+
+    /**
+     * Obtains the binary names of the classes that are initialized at image build time.
+     *
+     * @param constantsClasses  Generated classes
+     * @return Binary names of the generated classes and their nested classes.
+     */
+    static List<String> getInitializedClasses(final List<ConstantsClass> constantsClasses) {
+        final List<String> classnames = new ArrayList<>();
+        for (final ConstantsClass constantsClass : constantsClasses) {
+            final String classname = constantsClass.packageName() + '.' + constantsClass.className();
+            classnames.add(classname);
+            for (final Constant constant : constantsClass.constants()) {
+                if (constant.compressed()) {
+                    classnames.add(classname + '$' + constant.name() + "_Holder");
+                }
+            }
+            if (constantsClass.lookup()) {
+                classnames.add(classname + "$ConstantsMap");
+                if (constantsClass.constants().stream().anyMatch(JavaSourceWriter::isNumber)) {
+                    classnames.add(classname + "$BoxedValues");
+                }
+            }
+        }
+        return classnames;
+    }
+
+    /**
+     * Writes the native-image.properties file, which specifies the arguments for the native-image tool.
+     *
+     * @param out  Stream to which the file is written
+     * @param constantsClasses  Generated classes
+     * @throws IOException if there was a problem writing the file.
+     */
+    static void writeProperties(final OutputStream out, final List<ConstantsClass> constantsClasses)
+            throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.ISO_8859_1));
+        writer.write('#');
+        writer.write(JavaSourceWriter.GENERATED_HEADER.substring(2));
+        writer.write('\n');
+        writer.write("Args = --initialize-at-build-time=");
+        writer.write(String.join(",", getInitializedClasses(constantsClasses)));
+        writer.write('\n');
+        writer.flush();
+    }
+
+    /**
+     * Writes the resource-config.json file, which includes the properties resources of the specified classes in
+     * the image.
+     *
+     * @param out  Stream to which the file is written
+     * @param constantsClasses  Generated classes whose values are loaded from properties resources
+     * @throws IOException if there was a problem writing the file.
+     */
+    static void writeResourceConfig(final OutputStream out, final List<ConstantsClass> constantsClasses)
+            throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("{\n  \"resources\": {\n    \"includes\": [");
+        for (int i = 0; i < constantsClasses.size(); i++) {
+            writer.write(i == 0 ? "\n" : ",\n");
+            writer.write("      { \"pattern\": \"\\\\Q" + constantsClasses.get(i).getPath() + ".properties\\\\E\" }");
+        }
+        writer.write("\n    ]\n  }\n}\n");
+        writer.flush();
+    }
+}
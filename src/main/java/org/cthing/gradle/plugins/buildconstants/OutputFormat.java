@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+/**
+ * Specifies the form in which the constants classes are generated.
+ */
+public enum OutputFormat {
+
+    /**
+     * Generates Java source files, which are compiled with the rest of the source set. This is the default format.
+     */
+    SOURCE,
+
+    /**
+     * Generates Java class files directly, which bypasses compilation of the constants. The class files are added
+     * to the classes of the source set. Java source files matching the class files are also generated for
+     * reference by developers and IDEs, but they are not compiled.
+     */
+    CLASS,
+
+    /**
+     * Generates a Java properties resource containing the values of the constants and Java source files that
+     * load the values from the resource when the class is first used. The source files only change when the
+     * names or types of the constants change, so that changing a value only changes the resource and does not
+     * require recompilation. The resource is added to the resources of the source set, which allows tools to
+     * read the build information from a jar without loading classes.
+     */
+    RESOURCE,
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Writes the values of a class of constants as a Java properties resource. The resource is written in the format
+ * read by {@link java.util.Properties#load(java.io.InputStream)}. Unlike {@link java.util.Properties#store}, the
+ * resource does not contain a timestamp and its entries are written in the order of the constants so that its
+ * content only changes when a value changes.
+ */
+final class PropertiesWriter {
+
+    private PropertiesWriter() {
+    }
+
+    /**
+     * Obtains the name of the resource for the specified class relative to the package of the class
+     * (e.g. Constants.properties).
+     *
+     * @param constantsClass  Class whose values are in the resource
+     * @return Name of the resource.
+     */
+    static String getResourceName(final ConstantsClass constantsClass) {
+        return constantsClass.className() + ".properties";
+    }
+
+    /**
+     * Writes the values of the constants in the specified class as a properties resource encoded in ISO 8859-1.
+     *
+     * @param out  Stream to which the resource is written
+     * @param constantsClass  Class whose values are to be written
+     * @throws IOException if there was a problem writing the resource.
+     */
+    static void write(final OutputStream out, final ConstantsClass constantsClass) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.ISO_8859_1));
+        writer.write('#');
+        writer.write(JavaSourceWriter.GENERATED_HEADER.substring(2));
+        writer.write('\n');
+
+        final StringBuilder buffer = new StringBuilder();
+        for (final Constant constant : constantsClass.constants()) {
+            buffer.setLength(0);
+            escape(buffer, constant.name(), true);
+            buffer.append('=');
+            escape(buffer, constant.value().toString(), false);
+            buffer.append('\n');
+            writer.append(buffer);
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Appends the specified string to the buffer escaped for use in a properties resource. Characters outside
+     * the printable ASCII range are written as Unicode escapes.
+     *
+     * @param buffer  Buffer to which the escaped string is appended
+     * @param str  String to escape
+     * @param isKey  {@code true} if the string is a property key, in which case all spaces are escaped. Otherwise,
+     *      only a leading space is escaped.
+     */
+    private static void escape(final StringBuilder buffer, final String str, final boolean isKey) {
+        for (int i = 0; i < str.length(); i++) {
+            final char ch = str.charAt(i);
+            switch (ch) {
+                case ' ' -> buffer.append(isKey || i == 0 ? "\\ " : " ");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                case '\f' -> buffer.append("\\f");
+                case '\\', '=', ':', '#', '!' -> buffer.append('\\').append(ch);
+                default -> {
+                    if (ch < 0x20 || ch > 0x7E) {
+                        buffer.append(String.format("\\u%04X", (int)ch));
+                    } else {
+                        buffer.append(ch);
+                    }
+                }
+            }
+        }
+    }
+}
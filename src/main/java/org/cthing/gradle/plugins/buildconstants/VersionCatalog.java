@@ -0,0 +1,416 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.gradle.api.GradleException;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Versions and library coordinates read from a Gradle version catalog file (e.g. gradle/libs.versions.toml).
+ * The file is read line by line and only the {@code [versions]} and {@code [libraries]} tables are parsed. The
+ * parser supports the subset of TOML used by version catalogs: bare and quoted keys, dotted keys, basic and
+ * literal strings, booleans, single line arrays, and inline tables. As in TOML, a dotted key defines a key
+ * within a table named by its first segments, so {@code groovy.strictly = "3.0.9"} in the {@code [versions]}
+ * table is equivalent to {@code groovy = { strictly = "3.0.9" }}. Other tables (e.g. {@code [bundles]} and
+ * {@code [plugins]}) are skipped without being parsed.
+ *
+ * @param versions  Version aliases mapped to their versions, sorted by alias
+ * @param libraries  Library aliases mapped to their coordinates (group:name or group:name:version), sorted by
+ *      alias
+ */
+record VersionCatalog(Map<String, String> versions, Map<String, String> libraries) {
+
+    /**
+     * Reads the specified version catalog file.
+     *
+     * @param file  Version catalog file to read
+     * @return Versions and libraries in the catalog.
+     * @throws GradleException if the file could not be read or is not a valid version catalog.
+     */
+    static VersionCatalog read(final Path file) {
+        final Map<String, Object> versionEntries = new LinkedHashMap<>();
+        final Map<String, Object> libraryEntries = new LinkedHashMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Object> table = null;
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                final String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.charAt(0) == '#') {
+                    continue;
+                }
+                if (trimmed.charAt(0) == '[') {
+                    final int end = trimmed.indexOf(']');
+                    final String name = end == -1 ? "" : trimmed.substring(1, end).strip();
+                    table = switch (name) {
+                        case "versions" -> versionEntries;
+                        case "libraries" -> libraryEntries;
+                        default -> null;
+                    };
+                    continue;
+                }
+                if (table != null) {
+                    final Parser parser = new Parser(trimmed, file, lineNumber);
+                    final List<String> key = parser.parseKey();
+                    parser.expect('=');
+                    parser.put(table, key, parser.parseValue());
+                    parser.expectEnd();
+                }
+            }
+        } catch (final IOException ex) {
+            throw new GradleException("Could not read version catalog " + file, ex);
+        }
+
+        final Map<String, String> versions = new TreeMap<>();
+        versionEntries.forEach((alias, value) -> versions.put(alias, resolveVersion(value, file, alias)));
+
+        final Map<String, String> libraries = new TreeMap<>();
+        libraryEntries.forEach((alias, value) -> libraries.put(alias, resolveLibrary(value, versions, file, alias)));
+
+        return new VersionCatalog(versions, libraries);
+    }
+
+    /**
+     * Converts a catalog alias to the form used in a constant name (e.g. "junit-api" becomes "JUNIT_API").
+     *
+     * @param alias  Alias to convert
+     * @return Alias in upper case with all characters other than letters and digits replaced by underscores.
+     */
+    static String toConstantName(final String alias) {
+        return alias.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "_");
+    }
+
+    /**
+     * Normalizes an alias for comparison. Gradle treats dashes, underscores and dots in aliases as equivalent
+     * separators.
+     *
+     * @param alias  Alias to normalize
+     * @return Normalized alias.
+     */
+    static String normalizeAlias(final String alias) {
+        return alias.replace('-', '.').replace('_', '.');
+    }
+
+    /**
+     * Obtains the version from a version declaration, which is either a string or a table of rich version
+     * constraints. For rich versions, the required, strict or preferred version is used, in that order. Other
+     * constraints, such as {@code reject} and {@code rejectAll}, are ignored.
+     */
+    private static String resolveVersion(final Object value, final Path file, final String alias) {
+        if (value instanceof String str) {
+            return str;
+        }
+        if (!(value instanceof Map<?, ?> table)) {
+            throw new GradleException("Version " + alias + " in " + file + " must be a string or a table");
+        }
+        for (final String constraint : new String[] { "require", "strictly", "prefer" }) {
+            if (table.get(constraint) instanceof String version) {
+                return version;
+            }
+        }
+        throw new GradleException("Version " + alias + " in " + file + " does not specify a version");
+    }
+
+    /**
+     * Obtains the coordinates from a library declaration, which is either a coordinates string or a table
+     * specifying the module or group and name, and optionally a version or version reference.
+     */
+    private static String resolveLibrary(final Object value, final Map<String, String> versions, final Path file,
+                                         final String alias) {
+        if (value instanceof String str) {
+            return str;
+        }
+        if (!(value instanceof Map<?, ?> table)) {
+            throw new GradleException("Library " + alias + " in " + file + " must be a string or a table");
+        }
+
+        final String module;
+        if (table.get("module") instanceof String str) {
+            module = str;
+        } else if (table.get("group") instanceof String group && table.get("name") instanceof String name) {
+            module = group + ':' + name;
+        } else {
+            throw new GradleException("Library " + alias + " in " + file + " does not specify its module");
+        }
+
+        String ref = null;
+        String version = null;
+        final Object versionValue = table.get("version");
+        if (versionValue instanceof Map<?, ?> versionTable && versionTable.get("ref") instanceof String str) {
+            ref = str;
+        } else if (versionValue != null) {
+            version = resolveVersion(versionValue, file, alias);
+        }
+        if (ref != null) {
+            version = versions.get(ref);
+            if (version == null) {
+                throw new GradleException("Library " + alias + " in " + file + " references unknown version " + ref);
+            }
+        }
+        return version == null ? module : module + ':' + version;
+    }
+
+    /**
+     * Parses the key and value on a line of a version catalog.
+     */
+    private static final class Parser {
+        private final String line;
+        private final Path file;
+        private final int lineNumber;
+        private int pos;
+
+        Parser(final String line, final Path file, final int lineNumber) {
+            this.line = line;
+            this.file = file;
+            this.lineNumber = lineNumber;
+        }
+
+        /**
+         * Parses a possibly dotted key.
+         *
+         * @return Segments of the key. A key that is not dotted has a single segment.
+         */
+        List<String> parseKey() {
+            final List<String> key = new ArrayList<>();
+            while (true) {
+                skipWhitespace();
+                final char ch = peek();
+                if (ch == '"' || ch == '\'') {
+                    key.add(parseString());
+                } else {
+                    final int start = this.pos;
+                    while (this.pos < this.line.length() && isBareKeyChar(this.line.charAt(this.pos))) {
+                        this.pos++;
+                    }
+                    if (start == this.pos) {
+                        throw error("Expected a key");
+                    }
+                    key.add(this.line.substring(start, this.pos));
+                }
+                skipWhitespace();
+                if (peek() != '.') {
+                    return key;
+                }
+                this.pos++;
+            }
+        }
+
+        /**
+         * Parses a string, boolean, array or inline table. Arrays are returned as lists and inline tables as
+         * maps, in which dotted keys define nested maps.
+         */
+        Object parseValue() {
+            skipWhitespace();
+            final char ch = peek();
+            if (ch == '"' || ch == '\'') {
+                return parseString();
+            }
+            if (this.line.startsWith("true", this.pos) || this.line.startsWith("false", this.pos)) {
+                final boolean value = this.line.startsWith("true", this.pos);
+                this.pos += value ? 4 : 5;
+                return value;
+            }
+            if (ch == '[') {
+                return parseArray();
+            }
+            if (ch != '{') {
+                throw error("Expected a string, boolean, array or inline table");
+            }
+
+            this.pos++;
+            final Map<String, Object> table = new LinkedHashMap<>();
+            skipWhitespace();
+            if (peek() == '}') {
+                this.pos++;
+                return table;
+            }
+            while (true) {
+                final List<String> key = parseKey();
+                expect('=');
+                put(table, key, parseValue());
+                skipWhitespace();
+                final char next = peek();
+                this.pos++;
+                if (next == '}') {
+                    return table;
+                }
+                if (next != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+            }
+        }
+
+        /**
+         * Adds a value to a table. The segments of a dotted key other than the last name nested tables, which
+         * are created as needed.
+         *
+         * @param table  Table to which the value is added
+         * @param key  Segments of the key of the value
+         * @param value  Value to add
+         */
+        @SuppressWarnings("unchecked")
+        void put(final Map<String, Object> table, final List<String> key, final Object value) {
+            Map<String, Object> current = table;
+            for (final String segment : key.subList(0, key.size() - 1)) {
+                final Object child = current.computeIfAbsent(segment, k -> new LinkedHashMap<String, Object>());
+                if (!(child instanceof Map)) {
+                    throw error("Key " + String.join(".", key) + " conflicts with the value of " + segment);
+                }
+                current = (Map<String, Object>)child;
+            }
+            if (current.putIfAbsent(key.get(key.size() - 1), value) != null) {
+                throw error("Duplicate key " + String.join(".", key));
+            }
+        }
+
+        void expect(final char expected) {
+            skipWhitespace();
+            if (peek() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+            this.pos++;
+        }
+
+        void expectEnd() {
+            skipWhitespace();
+            if (this.pos < this.line.length() && this.line.charAt(this.pos) != '#') {
+                throw error("Unexpected content after value");
+            }
+        }
+
+        private List<Object> parseArray() {
+            this.pos++;
+            final List<Object> array = new ArrayList<>();
+            while (true) {
+                skipWhitespace();
+                if (peek() == ']') {
+                    this.pos++;
+                    return array;
+                }
+                if (this.pos >= this.line.length()) {
+                    throw error("Unterminated array");
+                }
+                array.add(parseValue());
+                skipWhitespace();
+                final char next = peek();
+                if (next == ',') {
+                    this.pos++;
+                } else if (next != ']') {
+                    throw error("Expected ',' or ']'");
+                }
+            }
+        }
+
+        private String parseString() {
+            final char quote = this.line.charAt(this.pos++);
+            final StringBuilder str = new StringBuilder();
+            while (this.pos < this.line.length()) {
+                final char ch = this.line.charAt(this.pos++);
+                if (ch == quote) {
+                    return str.toString();
+                }
+                if (ch == '\\' && quote == '"') {
+                    str.append(parseEscape());
+                } else {
+                    str.append(ch);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private String parseEscape() {
+            if (this.pos >= this.line.length()) {
+                throw error("Unterminated string");
+            }
+            final char ch = this.line.charAt(this.pos++);
+            return switch (ch) {
+                case 'b' -> "\b";
+                case 't' -> "\t";
+                case 'n' -> "\n";
+                case 'f' -> "\f";
+                case 'r' -> "\r";
+                case '"' -> "\"";
+                case '\\' -> "\\";
+                case 'u', 'U' -> {
+                    final int length = ch == 'u' ? 4 : 8;
+                    if (this.pos + length > this.line.length()) {
+                        throw error("Invalid Unicode escape");
+                    }
+                    try {
+                        final int codePoint = Integer.parseInt(this.line.substring(this.pos, this.pos + length), 16);
+                        this.pos += length;
+                        yield Character.toString(codePoint);
+                    } catch (final IllegalArgumentException ex) {
+                        throw error("Invalid Unicode escape");
+                    }
+                }
+                default -> throw error("Invalid escape sequence \\" + ch);
+            };
+        }
+
+        private char peek() {
+            return this.pos < this.line.length() ? this.line.charAt(this.pos) : '\0';
+        }
+
+        private void skipWhitespace() {
+            while (this.pos < this.line.length() && (this.line.charAt(this.pos) == ' '
+                    || this.line.charAt(this.pos) == '\t')) {
+                this.pos++;
+            }
+        }
+
+        private static boolean isBareKeyChar(final char ch) {
+            return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '-'
+                    || ch == '_';
+        }
+
+        private GradleException error(final String message) {
+            return new GradleException(message + " at line " + this.lineNumber + ", column " + (this.pos + 1)
+                                               + " of version catalog " + this.file);
+        }
+    }
+
+    /**
+     * Key identifying the content of a version catalog file for caching the result of reading it.
+     *
+     * @param path  Absolute path of the file
+     * @param size  Size of the file in bytes
+     * @param lastModified  Last modified time of the file in milliseconds
+     */
+    record CacheKey(Path path, long size, long lastModified) {
+
+        /**
+         * Creates the key for the current content of the specified file.
+         *
+         * @param file  Version catalog file
+         * @return Key for the file, or {@code null} if the file cannot be accessed.
+         */
+        @Nullable
+        static CacheKey of(final Path file) {
+            try {
+                final Path path = file.toAbsolutePath();
+                return new CacheKey(path, Files.size(path), Files.getLastModifiedTime(path).toMillis());
+            } catch (final IOException ex) {
+                return null;
+            }
+        }
+    }
+}
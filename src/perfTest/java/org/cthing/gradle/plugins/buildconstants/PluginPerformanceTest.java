@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.BuildTask;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.gradle.testkit.runner.TaskOutcome.SUCCESS;
+import static org.gradle.testkit.runner.TaskOutcome.UP_TO_DATE;
+
+
+/**
+ * Measures the overhead of the plugin in large builds. For each size, a synthetic build is generated with that
+ * number of subprojects, each applying the plugin, and the following are measured:
+ * <ul>
+ *     <li>configurationMillis - Median time to configure the build (using --dry-run)</li>
+ *     <li>noOpMillis - Median time of a build in which all generation tasks are up-to-date</li>
+ *     <li>upToDateRate - Fraction of the generation tasks that are up-to-date in the no-op builds</li>
+ *     <li>configurationCacheHitRate - Fraction of the builds that reuse the configuration cache entry</li>
+ * </ul>
+ * The results are written to build/reports/perfTest. The test fails if a time exceeds the baseline multiplied by
+ * the tolerance in the baseline file specified by the perfTestBaseline system property, or if a generation task
+ * or configuration cache entry is not reused. When the perfTestUpdateBaseline system property is {@code true},
+ * the times are not compared and are recorded in the baseline file instead, so that the baseline reflects the
+ * machine running the test.
+ */
+public class PluginPerformanceTest {
+
+    private static final Path BASE_DIR = Path.of(System.getProperty("buildDir"), "perfTest");
+    private static final Path WORKING_DIR = Path.of(System.getProperty("projectDir"), "testkit");
+    private static final Path RESULTS_DIR = Path.of(System.getProperty("buildDir"), "reports", "perfTest");
+    private static final Path BASELINE_FILE = Path.of(System.getProperty("perfTestBaseline"));
+    private static final String TASK_NAME = "generateBuildConstants";
+    private static final int ITERATIONS = 5;
+
+    private Path projectDir;
+
+    public static Stream<Integer> subprojectCountProvider() {
+        return Arrays.stream(System.getProperty("perfTestSizes", "10,100,1000").split(","))
+                     .map(String::strip)
+                     .map(Integer::valueOf);
+    }
+
+    @BeforeEach
+    public void setup() throws IOException {
+        Files.createDirectories(BASE_DIR);
+        Files.createDirectories(WORKING_DIR);
+        Files.createDirectories(RESULTS_DIR);
+        this.projectDir = Files.createTempDirectory(BASE_DIR, "project");
+    }
+
+    @ParameterizedTest
+    @MethodSource("subprojectCountProvider")
+    public void testPerformance(final int subprojectCount) throws IOException {
+        generateBuild(subprojectCount);
+
+        // The first build generates the constants and warms up the daemon.
+        final BuildResult initialResult = run(TASK_NAME);
+        assertThat(countOutcomes(initialResult, SUCCESS)).as(initialResult.getOutput()).isEqualTo(subprojectCount);
+
+        final List<Long> configurationTimes = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            final long start = System.nanoTime();
+            run(TASK_NAME, "--dry-run");
+            configurationTimes.add(System.nanoTime() - start);
+        }
+
+        final List<Long> noOpTimes = new ArrayList<>();
+        int upToDateCount = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            final long start = System.nanoTime();
+            final BuildResult result = run(TASK_NAME);
+            noOpTimes.add(System.nanoTime() - start);
+            upToDateCount += countOutcomes(result, UP_TO_DATE);
+        }
+
+        // The first build with the configuration cache stores the entry, which is reused by the following builds.
+        run(TASK_NAME, "--configuration-cache");
+        int hitCount = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            final BuildResult result = run(TASK_NAME, "--configuration-cache");
+            if (result.getOutput().contains("Configuration cache entry reused")) {
+                hitCount++;
+            }
+        }
+
+        final Properties results = new Properties();
+        final long configurationMillis = median(configurationTimes);
+        final long noOpMillis = median(noOpTimes);
+        final double upToDateRate = (double)upToDateCount / (ITERATIONS * subprojectCount);
+        final double hitRate = (double)hitCount / ITERATIONS;
+        results.setProperty(subprojectCount + ".configurationMillis", Long.toString(configurationMillis));
+        results.setProperty(subprojectCount + ".noOpMillis", Long.toString(noOpMillis));
+        results.setProperty(subprojectCount + ".upToDateRate", Double.toString(upToDateRate));
+        results.setProperty(subprojectCount + ".configurationCacheHitRate", Double.toString(hitRate));
+        writeResults(RESULTS_DIR.resolve("results-" + subprojectCount + ".properties"), results);
+
+        assertThat(upToDateRate).as("Up-to-date rate").isEqualTo(1.0);
+        assertThat(hitRate).as("Configuration cache hit rate").isEqualTo(1.0);
+
+        final String configurationKey = subprojectCount + ".configurationMillis";
+        final String noOpKey = subprojectCount + ".noOpMillis";
+        if (Boolean.getBoolean("perfTestUpdateBaseline")) {
+            updateBaseline(configurationKey, configurationMillis, noOpKey, noOpMillis);
+            return;
+        }
+
+        final Properties baseline = loadBaseline();
+        final double tolerance = Double.parseDouble(baseline.getProperty("tolerance", "1.5"));
+        assertWithinBaseline(baseline, tolerance, configurationKey, configurationMillis);
+        assertWithinBaseline(baseline, tolerance, noOpKey, noOpMillis);
+    }
+
+    private void generateBuild(final int subprojectCount) throws IOException {
+        final StringBuilder settings = new StringBuilder("rootProject.name = \"perfProject\"\n\n");
+        for (int i = 1; i <= subprojectCount; i++) {
+            final String name = String.format("sub%04d", i);
+            settings.append("include(\"").append(name).append("\")\n");
+
+            final Path subprojectDir = Files.createDirectories(this.projectDir.resolve(name));
+            Files.writeString(subprojectDir.resolve("build.gradle.kts"), String.format("""
+                    plugins {
+                        java
+                        id("org.cthing.build-constants")
+                    }
+
+                    version = "1.2.3"
+                    group = "org.cthing"
+
+                    tasks {
+                        generateBuildConstants {
+                            classname = "org.cthing.perf.%s.Constants"
+                            buildTime = 1718946725000
+                            additionalConstants.put("SUBPROJECT", "%s")
+                        }
+                    }
+                    """, name, name), StandardCharsets.UTF_8);
+        }
+
+        Files.writeString(this.projectDir.resolve("settings.gradle.kts"), settings, StandardCharsets.UTF_8);
+        Files.writeString(this.projectDir.resolve("build.gradle.kts"), """
+                plugins {
+                    id("org.cthing.build-constants") apply false
+                }
+                """, StandardCharsets.UTF_8);
+        Files.writeString(this.projectDir.resolve("gradle.properties"), """
+                org.gradle.jvmargs=-Xmx2g
+                org.gradle.parallel=true
+                org.gradle.caching=false
+                """, StandardCharsets.UTF_8);
+    }
+
+    private BuildResult run(final String... args) {
+        return GradleRunner.create()
+                           .withProjectDir(this.projectDir.toFile())
+                           .withTestKitDir(WORKING_DIR.toFile())
+                           .withArguments(args)
+                           .withPluginClasspath()
+                           .build();
+    }
+
+    private static int countOutcomes(final BuildResult result, final TaskOutcome outcome) {
+        int count = 0;
+        for (final BuildTask task : result.getTasks()) {
+            if (task.getPath().endsWith(":" + TASK_NAME) && task.getOutcome() == outcome) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long median(final List<Long> nanos) {
+        final List<Long> sorted = nanos.stream().sorted().toList();
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get(sorted.size() / 2));
+    }
+
+    private static Properties loadBaseline() throws IOException {
+        final Properties baseline = new Properties();
+        if (Files.exists(BASELINE_FILE)) {
+            try (Reader reader = Files.newBufferedReader(BASELINE_FILE, StandardCharsets.ISO_8859_1)) {
+                baseline.load(reader);
+            }
+        }
+        return baseline;
+    }
+
+    /**
+     * Records the specified times in the baseline file. The tolerance and the times of the other sizes are kept.
+     */
+    private static void updateBaseline(final String configurationKey, final long configurationMillis,
+                                       final String noOpKey, final long noOpMillis) throws IOException {
+        final Properties baseline = loadBaseline();
+        baseline.putIfAbsent("tolerance", "1.5");
+        baseline.setProperty(configurationKey, Long.toString(configurationMillis));
+        baseline.setProperty(noOpKey, Long.toString(noOpMillis));
+        Files.createDirectories(BASELINE_FILE.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(BASELINE_FILE, StandardCharsets.ISO_8859_1)) {
+            baseline.store(writer, "Baseline times, in milliseconds, of the plugin performance test");
+        }
+    }
+
+    private static void assertWithinBaseline(final Properties baseline, final double tolerance, final String key,
+                                             final long actualMillis) {
+        final String expected = baseline.getProperty(key);
+        assertThat(expected).as("Baseline for " + key + " in " + BASELINE_FILE
+                                        + " (record it using -PperfTestUpdateBaseline=true)").isNotNull();
+        final long limit = Math.round(Long.parseLong(expected) * tolerance);
+        assertThat(actualMillis).as(key + " regressed past the baseline of " + expected + " ms").isLessThanOrEqualTo(limit);
+    }
+
+    private static void writeResults(final Path file, final Properties results) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1)) {
+            results.store(writer, null);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.util.Set;
+
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+
+public class DependencyVersionsTest {
+
+    @Test
+    public void testConstantNames() {
+        assertThat(DependencyVersions.toConstantNames(Set.of("io.netty:netty-handler",
+                                                             "com.fasterxml.jackson.core:jackson-databind")))
+                .containsExactly(entry("com.fasterxml.jackson.core:jackson-databind", "DEPENDENCY_JACKSON_DATABIND"),
+                                 entry("io.netty:netty-handler", "DEPENDENCY_NETTY_HANDLER"));
+    }
+
+    @Test
+    public void testSameModuleNames() {
+        assertThat(DependencyVersions.toConstantNames(Set.of("com.fasterxml.jackson.core:jackson-core",
+                                                             "tools.jackson.core:jackson-core",
+                                                             "io.netty:netty-handler")))
+                .containsExactly(entry("com.fasterxml.jackson.core:jackson-core",
+                                       "DEPENDENCY_COM_FASTERXML_JACKSON_CORE_JACKSON_CORE"),
+                                 entry("io.netty:netty-handler", "DEPENDENCY_NETTY_HANDLER"),
+                                 entry("tools.jackson.core:jackson-core", "DEPENDENCY_TOOLS_JACKSON_CORE_JACKSON_CORE"));
+    }
+
+    @Test
+    public void testConflictingNames() {
+        assertThatThrownBy(() -> DependencyVersions.toConstantNames(Set.of("org.example:lib.a", "org.example:lib-a")))
+                .isInstanceOf(GradleException.class)
+                .hasMessage("Dependencies org.example:lib-a and org.example:lib.a both result in the constant "
+                                    + "DEPENDENCY_ORG_EXAMPLE_LIB_A");
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+/**
+ * Verifies that the information read from Git repositories in various states matches that reported by the
+ * {@code git} command.
+ */
+public class GitRepositoryTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private Path repoDir;
+    private long commitTime = 1718946725L;
+
+    @BeforeEach
+    public void setup() throws IOException, InterruptedException {
+        this.repoDir = Files.createDirectories(this.tempDir.resolve("repo"));
+        git(this.repoDir, "init", "-q");
+        git(this.repoDir, "symbolic-ref", "HEAD", "refs/heads/main");
+    }
+
+    @Test
+    public void testLooseObjects() throws IOException, InterruptedException {
+        commit(this.repoDir, "README.txt", "Test project\n");
+        git(this.repoDir, "tag", "1.0.0");
+        commit(this.repoDir, "README.txt", "Modified\n");
+
+        assertMatchesGit(this.repoDir);
+    }
+
+    @Test
+    public void testPackedObjectsAndRefs() throws IOException, InterruptedException {
+        commit(this.repoDir, "README.txt", "Test project\n");
+        git(this.repoDir, "tag", "-a", "v1.0.0", "-m", "Release 1.0.0");
+        commit(this.repoDir, "README.txt", "Modified\n");
+        git(this.repoDir, "gc", "-q");
+        git(this.repoDir, "pack-refs", "--all");
+
+        assertThat(this.repoDir.resolve(".git/refs/tags/v1.0.0")).doesNotExist();
+        assertThat(this.repoDir.resolve(".git/packed-refs")).content(StandardCharsets.UTF_8).contains("refs/tags/v1.0.0", "\n^");
+        assertMatchesGit(this.repoDir);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    public void testDeltaCompressedObjects(final boolean offsetDeltas) throws IOException, InterruptedException {
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            content.append("Line ").append(i).append('\n');
+        }
+        commit(this.repoDir, "data.txt", content.toString());
+        git(this.repoDir, "tag", "1.0.0");
+        for (int i = 0; i < 5; i++) {
+            content.append("Added line ").append(i).append('\n');
+            commit(this.repoDir, "data.txt", content.toString());
+        }
+        git(this.repoDir, "-c", "repack.useDeltaBaseOffset=" + offsetDeltas, "repack", "-a", "-d", "-f", "-q");
+
+        final Path packIndex;
+        try (Stream<Path> files = Files.list(this.repoDir.resolve(".git/objects/pack"))) {
+            packIndex = files.filter(file -> file.toString().endsWith(".idx")).findFirst().orElseThrow();
+        }
+        assertThat(git(this.repoDir, "verify-pack", "-v", packIndex.toString())).contains("chain length");
+        assertMatchesGit(this.repoDir);
+    }
+
+    @Test
+    public void testDescribeMergeOfOlderTag() throws IOException, InterruptedException {
+        commit(this.repoDir, "README.txt", "Test project\n");
+        git(this.repoDir, "tag", "-a", "v1.0.0", "-m", "Release 1.0.0");
+        git(this.repoDir, "checkout", "-q", "-b", "side");
+        commit(this.repoDir, "side.txt", "Side 1\n");
+        git(this.repoDir, "tag", "side-1");
+        commit(this.repoDir, "side.txt", "Side 2\n");
+        commit(this.repoDir, "side.txt", "Side 3\n");
+        git(this.repoDir, "checkout", "-q", "main");
+        commit(this.repoDir, "main.txt", "Main 1\n");
+        git(this.repoDir, "tag", "-a", "v1.1.0", "-m", "Release 1.1.0");
+        commit(this.repoDir, "main.txt", "Main 2\n");
+        git(this.repoDir, "merge", "-q", "--no-edit", "side");
+
+        assertMatchesGit(this.repoDir);
+    }
+
+    @Test
+    public void testDescribeMergeOfNewerTag() throws IOException, InterruptedException {
+        commit(this.repoDir, "README.txt", "Test project\n");
+        git(this.repoDir, "tag", "v1.0.0");
+        git(this.repoDir, "checkout", "-q", "-b", "side");
+        commit(this.repoDir, "side.txt", "Side 1\n");
+        git(this.repoDir, "checkout", "-q", "main");
+        for (int i = 0; i < 4; i++) {
+            commit(this.repoDir, "main.txt", "Main " + i + "\n");
+        }
+        git(this.repoDir, "checkout", "-q", "side");
+        commit(this.repoDir, "side.txt", "Side 2\n");
+        git(this.repoDir, "tag", "-a", "v2.0.0-rc1", "-m", "Release candidate");
+        git(this.repoDir, "checkout", "-q", "main");
+        git(this.repoDir, "merge", "-q", "--no-edit", "side");
+        commit(this.repoDir, "main.txt", "After merge\n");
+
+        assertMatchesGit(this.repoDir);
+    }
+
+    @Test
+    public void testDescribeSeveralTagsOnCommit() throws IOException, InterruptedException {
+        commit(this.repoDir, "README.txt", "Test project\n");
+        git(this.repoDir, "tag", "a-lightweight");
+        git(this.repoDir, "tag", "-a", "z-annotated", "-m", "Annotated");
+        git(this.repoDir, "tag", "-a", "y-annotated", "-m", "Newer annotated");
+
+        assertMatchesGit(this.repoDir);
+
+        commit(this.repoDir, "README.txt", "Modified\n");
+        assertMatchesGit(this.repoDir);
+    }
+
+    @Test
+    public void testIndexVersion4() throws IOException, InterruptedException {
+        commit(this.repoDir, "README.txt", "Test project\n");
+        Files.createDirectories(this.repoDir.resolve("src/main/java"));
+        commit(this.repoDir, "src/main/java/FirstClassWithLongName.java", "class FirstClassWithLongName { }\n");
+        commit(this.repoDir, "src/main/java/SecondClassWithLongName.java", "class SecondClassWithLongName { }\n");
+        git(this.repoDir, "update-index", "--index-version", "4");
+
+        assertThat(git(this.repoDir, "ls-files", "--debug")).isNotEmpty();
+        assertMatchesGit(this.repoDir);
+
+        Files.writeString(this.repoDir.resolve("src/main/java/SecondClassWithLongName.java"), "class Changed { }\n",
+                          StandardCharsets.UTF_8);
+        assertMatchesGit(this.repoDir);
+    }
+
+    @Test
+    public void testWorktree() throws IOException, InterruptedException {
+        commit(this.repoDir, "README.txt", "Test project\n");
+        git(this.repoDir, "tag", "-a", "v1.0.0", "-m", "Release 1.0.0");
+        final Path worktreeDir = this.tempDir.resolve("worktree");
+        git(this.repoDir, "worktree", "add", "-q", "-b", "feature", worktreeDir.toString());
+        commit(worktreeDir, "feature.txt", "Feature\n");
+        git(this.repoDir, "gc", "-q");
+
+        assertMatchesGit(worktreeDir);
+        assertMatchesGit(this.repoDir);
+
+        Files.writeString(worktreeDir.resolve("feature.txt"), "Modified\n", StandardCharsets.UTF_8);
+        assertMatchesGit(worktreeDir);
+        assertMatchesGit(this.repoDir);
+    }
+
+    @Test
+    public void testDetachedHead() throws IOException, InterruptedException {
+        commit(this.repoDir, "README.txt", "Test project\n");
+        git(this.repoDir, "tag", "1.0.0");
+        commit(this.repoDir, "README.txt", "Modified\n");
+        git(this.repoDir, "checkout", "-q", "--detach", "HEAD~1");
+
+        assertMatchesGit(this.repoDir);
+    }
+
+    @Test
+    public void testAutocrlf() throws IOException, InterruptedException {
+        git(this.repoDir, "config", "core.autocrlf", "true");
+        commit(this.repoDir, "README.txt", "Line 1\nLine 2\n");
+        final Path file = this.repoDir.resolve("README.txt");
+
+        // The file is stored with LF line endings and checked out with CRLF line endings. Changing its
+        // modification time requires its content to be compared with the index.
+        Files.delete(file);
+        git(this.repoDir, "checkout", "--", "README.txt");
+        assertThat(file).content(StandardCharsets.UTF_8).isEqualTo("Line 1\r\nLine 2\r\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5000));
+        assertThat(isDirty(this.repoDir)).isFalse();
+        assertMatchesGit(this.repoDir);
+
+        Files.writeString(file, "Line 1\r\nLine 3\r\n", StandardCharsets.UTF_8);
+        assertThat(isDirty(this.repoDir)).isTrue();
+        assertMatchesGit(this.repoDir);
+    }
+
+    @Test
+    public void testAssumeUnchanged() throws IOException, InterruptedException {
+        commit(this.repoDir, "README.txt", "Test project\n");
+        git(this.repoDir, "update-index", "--assume-unchanged", "README.txt");
+        Files.writeString(this.repoDir.resolve("README.txt"), "Modified\n", StandardCharsets.UTF_8);
+
+        assertThat(isDirty(this.repoDir)).isFalse();
+        assertMatchesGit(this.repoDir);
+    }
+
+    @Test
+    public void testCleanFilter() throws IOException, InterruptedException {
+        git(this.repoDir, "config", "filter.upper.clean", "tr a-z A-Z");
+        commit(this.repoDir, ".gitattributes", "*.dat filter=upper\n");
+        commit(this.repoDir, "data.dat", "abc\n");
+        final Path file = this.repoDir.resolve("data.dat");
+
+        // The file is stored as converted by the clean filter, so its content differs from the stored content.
+        Files.writeString(file, "abc\n", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5000));
+        assertThat(isDirty(this.repoDir)).isFalse();
+        assertMatchesGit(this.repoDir);
+
+        Files.writeString(file, "abd\n", StandardCharsets.UTF_8);
+        assertThat(isDirty(this.repoDir)).isTrue();
+        assertMatchesGit(this.repoDir);
+    }
+
+    @Test
+    public void testNoCommits() throws IOException {
+        final GitRepository repository = GitRepository.find(this.repoDir.toFile());
+        assertThat(repository).isNotNull();
+        assertThat(repository.resolveHead()).isNull();
+        assertThat(repository.readHeadRef()).isEqualTo("refs/heads/main");
+    }
+
+    @Test
+    public void testSha256Unsupported() throws IOException, InterruptedException {
+        final Path sha256Dir = Files.createDirectories(this.tempDir.resolve("sha256"));
+        git(sha256Dir, "init", "-q", "--object-format=sha256");
+
+        assertThatThrownBy(() -> GitRepository.find(sha256Dir.toFile()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("uses the sha256 object format, which is not supported");
+    }
+
+    /**
+     * Verifies that the information read from the repository containing the specified directory matches the
+     * output of the {@code git} command. The repository is read before running {@code git status}, which may
+     * rewrite the index.
+     */
+    private void assertMatchesGit(final Path dir) throws IOException, InterruptedException {
+        final GitRepository repository = GitRepository.find(dir.toFile());
+        assertThat(repository).isNotNull();
+
+        final String head = repository.resolveHead();
+        assertThat(head).isNotNull();
+        final String headRef = repository.readHeadRef();
+        final String branch = headRef == null ? "HEAD" : headRef.substring("refs/heads/".length());
+        final String describe = repository.describe(head);
+        final long commitTime = repository.readCommit(head).commitTime();
+        final boolean dirty = repository.isDirty(head);
+
+        assertThat(head).isEqualTo(git(dir, "rev-parse", "HEAD"));
+        assertThat(branch).isEqualTo(git(dir, "rev-parse", "--abbrev-ref", "HEAD"));
+        assertThat(describe).isEqualTo(git(dir, "describe", "--tags", "--always", "--abbrev=7"));
+        assertThat(commitTime).isEqualTo(Long.parseLong(git(dir, "log", "-1", "--format=%ct")) * 1000L);
+        assertThat(dirty).isEqualTo(!git(dir, "status", "--porcelain", "--untracked-files=no").isEmpty());
+    }
+
+    private static boolean isDirty(final Path dir) throws IOException {
+        final GitRepository repository = GitRepository.find(dir.toFile());
+        assertThat(repository).isNotNull();
+        return repository.isDirty(repository.resolveHead());
+    }
+
+    private void commit(final Path dir, final String file, final String content)
+            throws IOException, InterruptedException {
+        Files.writeString(dir.resolve(file), content, StandardCharsets.UTF_8);
+        git(dir, "add", file);
+        git(dir, "commit", "-q", "-m", "Update " + file);
+    }
+
+    /**
+     * Runs git in the specified directory with fixed author and committer information. Each command is run one
+     * minute after the previous one, so that the commits have distinct but reproducible commit times.
+     */
+    private String git(final Path dir, final String... args) throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>(List.of("git", "-c", "user.name=Test", "-c", "user.email=test@cthing.com",
+                                                             "-c", "commit.gpgsign=false", "-c", "tag.gpgsign=false"));
+        command.addAll(List.of(args));
+        final ProcessBuilder builder = new ProcessBuilder(command).directory(dir.toFile()).redirectErrorStream(true);
+        this.commitTime += 60;
+        builder.environment().put("GIT_AUTHOR_DATE", this.commitTime + " +0000");
+        builder.environment().put("GIT_COMMITTER_DATE", this.commitTime + " +0000");
+        final Process process = builder.start();
+        final String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        assertThat(process.waitFor()).as(output).isZero();
+        return output;
+    }
+}
@@ -6,8 +6,13 @@
 package org.cthing.gradle.plugins.buildconstants;
 
 import java.io.File;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 
 import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.bundling.Jar;
 import org.gradle.testfixtures.ProjectBuilder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -29,9 +34,118 @@ public class PluginApplyTest {
         assertThat(task.getClassname().isPresent()).isFalse();
         assertThat(task.getOutputDirectory().get().getAsFile().getPath())
                 .endsWith("build/generated-src/build-constants/main");
+        assertThat(task.getClassesOutputDirectory().get().getAsFile().getPath())
+                .endsWith("build/generated-classes/build-constants/main");
+        assertThat(task.getResourcesOutputDirectory().get().getAsFile().getPath())
+                .endsWith("build/generated-resources/build-constants/main");
+        assertThat(task.getOutputFormat().get()).isEqualTo(OutputFormat.SOURCE);
+        assertThat(task.getLookupMethods().get()).isFalse();
+        assertThat(task.getMaxConstantsPerClass().get()).isEqualTo(10_000);
+        assertThat(task.getCompressionThreshold().isPresent()).isFalse();
+        assertThat(task.getNativeImageMetadata().get()).isFalse();
         assertThat(task.getSourceAccess().get()).isEqualTo(SourceAccess.PUBLIC);
+        assertThat(task.getTrackBuildFiles().get()).isTrue();
+        assertThat(task.getConstantsStyle().get()).isEqualTo(ConstantsStyle.INLINED);
+        assertThat(task.getStableConstants().get()).isEmpty();
+        assertThat(task.getVolatileClassname().isPresent()).isFalse();
+        assertThat(task.getConstantGroups().get()).isEmpty();
         assertThat(task.getProjectName().get()).isEqualTo("testProject");
         assertThat(task.getProjectVersion().get()).hasToString("unspecified");
         assertThat(task.getProjectGroup().get()).hasToString("");
+        assertThat(task.getBuildTimeStrategy().get()).isEqualTo(BuildTimeStrategy.WALL_CLOCK);
+        assertThat(task.getBuildTimeGranularity().get()).isEqualTo(ChronoUnit.HOURS);
+        assertThat(task.getIncludeGitConstants().get()).isFalse();
+        assertThat(task.getGitConstants().get()).isEmpty();
+        assertThat(task.getIncludeVersionCatalog().get()).isFalse();
+        assertThat(task.getVersionCatalogFile().get().getAsFile().getPath()).endsWith("gradle/libs.versions.toml");
+        assertThat(task.getVersionCatalogLibraries().get()).isEmpty();
+        assertThat(task.getVersionCatalogInput().isEmpty()).isTrue();
+        assertThat(task.getDependencyVersions().get()).isEmpty();
+        assertThat(task.getDependencyGraph().isPresent()).isFalse();
+        assertThat(task.getResolvedDependencyVersions().get()).isEmpty();
+        assertThat(task.getDigestFiles().isEmpty()).isTrue();
+        assertThat(task.getDigestAlgorithm().get()).isEqualTo("SHA-256");
+        assertThat(task.getDigestCacheDirectory().get().getAsFile().getPath())
+                .endsWith("build/tmp/generateBuildConstants/digests");
+        assertThat(task.getDeferredConstants()).isEmpty();
+        assertThat(task.getDeferredConstantTimeout().get()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(task.getDeferredConstantsParallelism().get()).isPositive();
+        assertThat(task.getResolvedDeferredConstants()).isEmpty();
+        assertThat(task.getReportFile().get().getAsFile().getPath())
+                .endsWith("build/reports/build-constants/generateBuildConstants.json");
+        assertThat(task.getBuildConstantsService().isPresent()).isTrue();
+    }
+
+    @Test
+    public void testClassOutput(@TempDir final File projectDir) {
+        final Project project = ProjectBuilder.builder().withName("testProject").withProjectDir(projectDir).build();
+        project.getPluginManager().apply("org.cthing.build-constants");
+
+        final BuildConstantsTask task = (BuildConstantsTask)project.getTasks().getByName("generateBuildConstants");
+        final SourceSet main = project.getExtensions().getByType(JavaPluginExtension.class).getSourceSets()
+                                      .getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+        final File sourceDir = task.getOutputDirectory().get().getAsFile();
+        final File classesDir = task.getClassesOutputDirectory().get().getAsFile();
+        final File apiJar = ((Jar)project.getTasks().getByName("buildConstantsJar")).getArchiveFile().get().getAsFile();
+        assertThat(apiJar.getPath()).endsWith("build/generated-jars/build-constants/main/build-constants-main.jar");
+
+        // The class files are only added to the source set when the class files are generated directly.
+        assertThat(main.getJava().getSrcDirs()).contains(sourceDir);
+        assertThat(main.getCompileClasspath().getFiles()).doesNotContain(apiJar);
+        assertThat(main.getOutput().getFiles()).doesNotContain(classesDir);
+
+        // The source set is compiled against a jar of the class files, which is a dependency seen by IDEs.
+        task.getOutputFormat().set(OutputFormat.CLASS);
+        assertThat(main.getJava().getSrcDirs()).doesNotContain(sourceDir);
+        assertThat(main.getCompileClasspath().getFiles()).contains(apiJar);
+        assertThat(project.getConfigurations().getByName(main.getCompileOnlyConfigurationName()).getFiles())
+                .containsExactly(apiJar);
+        assertThat(main.getOutput().getFiles()).contains(classesDir);
+    }
+
+    @Test
+    public void testSourceSets(@TempDir final File projectDir) {
+        final Project project = ProjectBuilder.builder().withName("testProject").withProjectDir(projectDir).build();
+        project.getPluginManager().apply("org.cthing.build-constants");
+
+        final BuildConstantsExtension extension = project.getExtensions().getByType(BuildConstantsExtension.class);
+        assertThat(extension.getDeferredConstants()).isEmpty();
+
+        extension.sourceSets("main", "test", "integrationTest");
+        assertThat(project).hasTaskWithType("generateTestBuildConstants", BuildConstantsTask.class);
+        assertThat(project.getTasks().findByName("generateIntegrationTestBuildConstants")).isNull();
+
+        // Constants are generated for a source set once it is created.
+        project.getExtensions().getByType(JavaPluginExtension.class).getSourceSets().create("integrationTest");
+        assertThat(project).hasTaskWithType("generateIntegrationTestBuildConstants", BuildConstantsTask.class);
+
+        final BuildConstantsTask task =
+                (BuildConstantsTask)project.getTasks().getByName("generateIntegrationTestBuildConstants");
+        assertThat(task.getOutputDirectory().get().getAsFile().getPath())
+                .endsWith("build/generated-src/build-constants/integrationTest");
+        assertThat(task.getReportFile().get().getAsFile().getPath())
+                .endsWith("build/reports/build-constants/generateIntegrationTestBuildConstants.json");
+    }
+
+    @Test
+    public void testDeferredConstantTimeout(@TempDir final File projectDir) {
+        final Project project = ProjectBuilder.builder().withName("testProject").withProjectDir(projectDir).build();
+        project.getPluginManager().apply("org.cthing.build-constants");
+
+        final BuildConstantsExtension extension = project.getExtensions().getByType(BuildConstantsExtension.class);
+        assertThat(extension.getDeferredConstantTimeout().get()).isEqualTo(Duration.ofSeconds(30));
+
+        final BuildConstantsTask task = (BuildConstantsTask)project.getTasks().getByName("generateBuildConstants");
+        final DeferredConstant shared = extension.getDeferredConstants().create("SHARED");
+        final DeferredConstant own = task.getDeferredConstants().create("OWN");
+
+        extension.getDeferredConstantTimeout().set(Duration.ofSeconds(10));
+        assertThat(shared.getTimeout().get()).isEqualTo(Duration.ofSeconds(10));
+        assertThat(task.getDeferredConstantTimeout().get()).isEqualTo(Duration.ofSeconds(10));
+        assertThat(own.getTimeout().get()).isEqualTo(Duration.ofSeconds(10));
+
+        task.getDeferredConstantTimeout().set(Duration.ofSeconds(5));
+        assertThat(shared.getTimeout().get()).isEqualTo(Duration.ofSeconds(10));
+        assertThat(own.getTimeout().get()).isEqualTo(Duration.ofSeconds(5));
     }
 }
@@ -7,12 +7,22 @@ package org.cthing.gradle.plugins.buildconstants;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarFile;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.file.PathUtils;
@@ -21,12 +31,18 @@ import org.gradle.testkit.runner.BuildTask;
 import org.gradle.testkit.runner.GradleRunner;
 import org.gradle.util.GradleVersion;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.InstanceOfAssertFactories.STRING;
+import static org.gradle.testkit.runner.TaskOutcome.FROM_CACHE;
 import static org.gradle.testkit.runner.TaskOutcome.SUCCESS;
+import static org.gradle.testkit.runner.TaskOutcome.UP_TO_DATE;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 
@@ -76,6 +92,51 @@ public class PluginIntegTest {
         verifyConstant(cls, "BUILD_DATE", "2024-06-21T05:12:05Z", SourceAccess.PUBLIC);
     }
 
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testGenerationReport(final String gradleVersion) throws IOException {
+        copyProject("public-access");
+
+        final BuildResult result1 = createGradleRunner(gradleVersion).build();
+        verifyBuild(result1);
+
+        final Path reportFile = this.projectDir.resolve("build/reports/build-constants/generateBuildConstants.json");
+        final String report1 = Files.readString(reportFile, StandardCharsets.UTF_8);
+        assertThat(report1).contains("\"taskPath\": \":generateBuildConstants\"",
+                                     "\"reason\": \"NO_PREVIOUS_EXECUTION\"",
+                                     "\"constantCount\": 5",
+                                     "\"classCount\": 1",
+                                     "\"filesWritten\": 1",
+                                     "\"unchanged\": false");
+
+        // Forcing the task to run again does not write the unchanged constants.
+        final BuildResult result2 = createGradleRunner(gradleVersion).withArguments("generateBuildConstants",
+                                                                                    "--rerun-tasks")
+                                                                     .build();
+        final BuildTask genTask2 = result2.task(":generateBuildConstants");
+        assertThat(genTask2).isNotNull();
+        assertThat(genTask2.getOutcome()).as(result2.getOutput()).isEqualTo(UP_TO_DATE);
+        final String report2 = Files.readString(reportFile, StandardCharsets.UTF_8);
+        assertThat(report2).contains("\"reason\": \"BUILD_FILES_OR_OUTPUTS_CHANGED\"",
+                                     "\"filesWritten\": 0",
+                                     "\"bytesWritten\": 0",
+                                     "\"unchanged\": true");
+
+        // Changing a constant is reported as the reason for running the task.
+        final Path buildFile = this.projectDir.resolve("build.gradle.kts");
+        final String buildScript = Files.readString(buildFile, StandardCharsets.UTF_8);
+        Files.writeString(buildFile, buildScript.replace("1.2.3", "1.2.4"), StandardCharsets.UTF_8);
+
+        final BuildResult result3 = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask3 = result3.task(":generateBuildConstants");
+        assertThat(genTask3).isNotNull();
+        assertThat(genTask3.getOutcome()).as(result3.getOutput()).isEqualTo(SUCCESS);
+        final String report3 = Files.readString(reportFile, StandardCharsets.UTF_8);
+        assertThat(report3).contains("\"reason\": \"CONSTANTS_CHANGED\"",
+                                     "\"filesWritten\": 1",
+                                     "\"unchanged\": false");
+    }
+
     @ParameterizedTest
     @MethodSource("gradleVersionProvider")
     public void testGeneratePackage(final String gradleVersion) throws IOException {
@@ -132,16 +193,780 @@ public class PluginIntegTest {
         verifyConstant(cls, "CUSTOM1", "Hello", SourceAccess.PUBLIC);
         verifyConstant(cls, "CUSTOM2", "World", SourceAccess.PUBLIC);
         verifyConstant(cls, "CUSTOM3", true, SourceAccess.PUBLIC);
+        verifyConstant(cls, "ESCAPED", "Say \"hi\" C:\\temp\tTab\r\nLine\u0001", SourceAccess.PUBLIC);
         verifyConstant(cls, "tuv", 2300L, SourceAccess.PUBLIC);
         verifyConstant(cls, "xyz", 17, SourceAccess.PUBLIC);
     }
 
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testDeferredConstants(final String gradleVersion) throws IOException {
+        copyProject("deferred-constants");
+
+        final BuildResult result = createGradleRunner(gradleVersion).withArguments("generateBuildConstants", "build",
+                                                                                   "--info")
+                                                                    .build();
+        verifyBuild(result);
+
+        final Class<?> cls = loadClass();
+        verifyConstant(cls, "BLOCKING_VALUE", "blocked", SourceAccess.PUBLIC);
+        verifyConstant(cls, "CHECKSUM", 1234L, SourceAccess.PUBLIC);
+        verifyConstant(cls, "CUSTOM1", "Hello", SourceAccess.PUBLIC);
+        verifyConstant(cls, "FAILING_VALUE", false, SourceAccess.PUBLIC);
+        verifyConstant(cls, "QUEUED_VALUE", "not started", SourceAccess.PUBLIC);
+        verifyConstant(cls, "SLOW_VALUE", "unknown", SourceAccess.PUBLIC);
+        verifyConstant(cls, "TOOL_VERSION", "3.4.5", SourceAccess.PUBLIC);
+
+        // The blocking value ignores interruption and occupies the only thread, so the queued value times out
+        // without being started.
+        assertThat(result.getOutput()).contains("Resolved deferred constant TOOL_VERSION in",
+                                                "Resolved deferred constant CHECKSUM in",
+                                                "The value of deferred constant BLOCKING_VALUE was not resolved within 500 ms",
+                                                "The value of deferred constant QUEUED_VALUE was not resolved within 1000 ms",
+                                                "The value of deferred constant SLOW_VALUE was not resolved within 4000 ms",
+                                                "The value of deferred constant FAILING_VALUE could not be resolved");
+        assertThat(result.getOutput()).doesNotContain("Resolved deferred constant QUEUED_VALUE in");
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testDeferredConstantsConfigurationCache(final String gradleVersion) throws IOException {
+        copyProject("deferred-constants");
+
+        final BuildResult result1 = createGradleRunner(gradleVersion).withArguments("generateBuildConstants", "build",
+                                                                                    "--configuration-cache")
+                                                                     .build();
+        verifyBuild(result1);
+
+        // Deferred values provided by value sources are resolved each time the task executes, including when
+        // the configuration cache entry is reused.
+        Files.writeString(this.projectDir.resolve("tool-version.txt"), "3.4.6", StandardCharsets.UTF_8);
+
+        final BuildResult result2 = createGradleRunner(gradleVersion).withArguments("generateBuildConstants", "build",
+                                                                                    "--configuration-cache", "--info")
+                                                                     .build();
+        assertThat(result2.getOutput()).contains("Configuration cache entry reused",
+                                                 "The value of deferred constant QUEUED_VALUE was not resolved within 1000 ms");
+        final BuildTask genTask2 = result2.task(":generateBuildConstants");
+        assertThat(genTask2).isNotNull();
+        assertThat(genTask2.getOutcome()).as(result2.getOutput()).isEqualTo(SUCCESS);
+
+        final Class<?> cls = loadClass();
+        verifyConstant(cls, "TOOL_VERSION", "3.4.6", SourceAccess.PUBLIC);
+        verifyConstant(cls, "QUEUED_VALUE", "not started", SourceAccess.PUBLIC);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testNonInlined(final String gradleVersion) throws IOException {
+        copyProject("non-inlined");
+
+        final BuildResult result = createGradleRunner(gradleVersion).build();
+        verifyBuild(result);
+
+        final Class<?> cls = loadClass();
+        assertThat(cls).isPublic().isFinal();
+
+        verifyConstant(cls, "PROJECT_NAME", "testProject", SourceAccess.PUBLIC);
+        verifyConstant(cls, "PROJECT_VERSION", "1.2.3", SourceAccess.PUBLIC);
+        verifyConstant(cls, "PROJECT_GROUP", "org.cthing", SourceAccess.PUBLIC);
+        verifyConstant(cls, "BUILD_TIME", 1718946725000L, SourceAccess.PUBLIC);
+        verifyConstant(cls, "BUILD_DATE", "2024-06-21T05:12:05Z", SourceAccess.PUBLIC);
+        verifyConstant(cls, "CUSTOM1", "Hello", SourceAccess.PUBLIC);
+        verifyConstant(cls, "CUSTOM2", 17, SourceAccess.PUBLIC);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testSplitClasses(final String gradleVersion) throws IOException {
+        copyProject("split-classes");
+
+        final BuildResult result = createGradleRunner(gradleVersion).build();
+        verifyBuild(result);
+
+        final Path generatedDir = this.projectDir.resolve("build/generated-src/build-constants/main/org/cthing/test");
+        assertThat(generatedDir.resolve("VolatileConstants.java"))
+                .hasSameTextualContentAs(this.projectDir.resolve("VolatileConstants.java"), StandardCharsets.UTF_8);
+        assertThat(generatedDir.resolve("Errors.java"))
+                .hasSameTextualContentAs(this.projectDir.resolve("Errors.java"), StandardCharsets.UTF_8);
+
+        final Class<?> cls = loadClass();
+        verifyConstant(cls, "PROJECT_NAME", "testProject", SourceAccess.PUBLIC);
+        verifyConstant(cls, "PROJECT_GROUP", "org.cthing", SourceAccess.PUBLIC);
+        verifyConstant(cls, "CUSTOM1", "Hello", SourceAccess.PUBLIC);
+
+        final Class<?> volatileCls = loadClass("org.cthing.test.VolatileConstants");
+        verifyConstant(volatileCls, "PROJECT_VERSION", "1.2.3", SourceAccess.PUBLIC);
+        verifyConstant(volatileCls, "BUILD_TIME", 1718946725000L, SourceAccess.PUBLIC);
+        verifyConstant(volatileCls, "BUILD_DATE", "2024-06-21T05:12:05Z", SourceAccess.PUBLIC);
+        verifyConstant(volatileCls, "CUSTOM2", 17, SourceAccess.PUBLIC);
+
+        final Class<?> errorsCls = loadClass("org.cthing.test.Errors");
+        verifyConstant(errorsCls, "ERROR1", "Bad", SourceAccess.PUBLIC);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testSplitParts(final String gradleVersion) throws IOException, ReflectiveOperationException {
+        copyProject("split-parts");
+
+        final BuildResult result = createGradleRunner(gradleVersion).build();
+        verifyBuild(result);
+
+        final Path generatedDir = this.projectDir.resolve("build/generated-src/build-constants/main/org/cthing/test");
+        assertThat(generatedDir.resolve("ConstantsPart2.java"))
+                .hasSameTextualContentAs(this.projectDir.resolve("ConstantsPart2.java"), StandardCharsets.UTF_8);
+        assertThat(generatedDir.resolve("ConstantsPart3.java"))
+                .hasSameTextualContentAs(this.projectDir.resolve("ConstantsPart3.java"), StandardCharsets.UTF_8);
+        assertThat(generatedDir.resolve("ConstantsPart4.java")).doesNotExist();
+
+        final Path classesDir = this.projectDir.resolve("build/classes/java/main");
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { classesDir.toUri().toURL() })) {
+            final Class<?> cls = loader.loadClass("org.cthing.test.Constants");
+            verifyConstant(cls, "PROJECT_GROUP", "org.cthing", SourceAccess.PUBLIC);
+
+            final Class<?> part2Cls = loader.loadClass("org.cthing.test.ConstantsPart2");
+            verifyConstant(part2Cls, "BUILD_TIME", 1718946725000L, SourceAccess.PUBLIC);
+
+            final Class<?> part3Cls = loader.loadClass("org.cthing.test.ConstantsPart3");
+            verifyConstant(part3Cls, "CUSTOM2", 17, SourceAccess.PUBLIC);
+
+            final Method getMethod = cls.getMethod("get", String.class);
+            assertThat(getMethod.invoke(null, "PROJECT_NAME")).isEqualTo("testProject");
+            assertThat(getMethod.invoke(null, "CUSTOM1")).isEqualTo("Hello");
+            assertThat(getMethod.invoke(null, "CUSTOM2")).isEqualTo(17);
+            assertThat(getMethod.invoke(null, "UNKNOWN")).isNull();
+            assertThat(getMethod.invoke(null, (Object)null)).isNull();
+
+            final Map<?, ?> map = (Map<?, ?>)cls.getMethod("asMap").invoke(null);
+            assertThat(map).containsExactly(entry("PROJECT_NAME", "testProject"),
+                                            entry("PROJECT_VERSION", "1.2.3"),
+                                            entry("PROJECT_GROUP", "org.cthing"),
+                                            entry("BUILD_TIME", 1718946725000L),
+                                            entry("BUILD_DATE", "2024-06-21T05:12:05Z"),
+                                            entry("CUSTOM1", "Hello"),
+                                            entry("CUSTOM2", 17));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testClassOutput(final String gradleVersion) throws IOException {
+        copyProject("class-output");
+
+        final BuildResult result = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask = result.task(":generateBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result.getOutput()).isEqualTo(SUCCESS);
+
+        final Path actualSource = this.projectDir.resolve("build/generated-src/build-constants/main/org/cthing/test/Constants.java");
+        assertThat(actualSource).hasSameTextualContentAs(this.projectDir.resolve("Constants.java"),
+                                                         StandardCharsets.UTF_8);
+
+        final Path generatedClassesDir = this.projectDir.resolve("build/generated-classes/build-constants/main");
+        assertThat(generatedClassesDir.resolve("org/cthing/test/Constants.class")).isRegularFile();
+
+        final BuildTask jarTask = result.task(":buildConstantsJar");
+        assertThat(jarTask).isNotNull();
+        assertThat(jarTask.getOutcome()).as(result.getOutput()).isEqualTo(SUCCESS);
+        final Path apiJar = this.projectDir.resolve("build/generated-jars/build-constants/main/build-constants-main.jar");
+        try (JarFile jar = new JarFile(apiJar.toFile())) {
+            assertThat(jar.getEntry("org/cthing/test/Constants.class")).isNotNull();
+            assertThat(jar.getEntry("org/cthing/test/Constants.java")).isNotNull();
+        }
+
+        final Path classesDir = this.projectDir.resolve("build/classes/java/main");
+        assertThat(classesDir.resolve("org/cthing/test/Constants.class")).doesNotExist();
+        assertThat(classesDir.resolve("org/cthing/test/Info.class")).isRegularFile();
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { generatedClassesDir.toUri().toURL(),
+                                                                    classesDir.toUri().toURL() })) {
+            final Class<?> cls = loader.loadClass("org.cthing.test.Constants");
+            assertThat(cls).isPublic().isFinal();
+
+            verifyConstant(cls, "PROJECT_NAME", "testProject", SourceAccess.PUBLIC);
+            verifyConstant(cls, "PROJECT_VERSION", "1.2.3", SourceAccess.PUBLIC);
+            verifyConstant(cls, "PROJECT_GROUP", "org.cthing", SourceAccess.PUBLIC);
+            verifyConstant(cls, "BUILD_TIME", 1718946725000L, SourceAccess.PUBLIC);
+            verifyConstant(cls, "BUILD_DATE", "2024-06-21T05:12:05Z", SourceAccess.PUBLIC);
+            verifyConstant(cls, "ESCAPED", "Say \"hi\" C:\\temp\tTab\r\nLine\u0001", SourceAccess.PUBLIC);
+
+            verifyConstant(loader.loadClass("org.cthing.test.Info"), "VERSION", "1.2.3", SourceAccess.PUBLIC);
+        } catch (final ClassNotFoundException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testResourceOutput(final String gradleVersion) throws IOException {
+        copyProject("resource-output");
+
+        final BuildResult result1 = createGradleRunner(gradleVersion).build();
+        verifyBuild(result1);
+
+        final Path actualResource = this.projectDir.resolve("build/resources/main/org/cthing/test/Constants.properties");
+        assertThat(actualResource).hasSameTextualContentAs(this.projectDir.resolve("Constants.properties"),
+                                                           StandardCharsets.ISO_8859_1);
+
+        final Path classesDir = this.projectDir.resolve("build/classes/java/main");
+        final Path resourcesDir = this.projectDir.resolve("build/resources/main");
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { classesDir.toUri().toURL(),
+                                                                    resourcesDir.toUri().toURL() })) {
+            final Class<?> cls = loader.loadClass("org.cthing.test.Constants");
+            assertThat(cls).isPublic().isFinal();
+
+            verifyConstant(cls, "PROJECT_NAME", "testProject", SourceAccess.PUBLIC);
+            verifyConstant(cls, "PROJECT_VERSION", "1.2.3", SourceAccess.PUBLIC);
+            verifyConstant(cls, "PROJECT_GROUP", "org.cthing", SourceAccess.PUBLIC);
+            verifyConstant(cls, "BUILD_TIME", 1718946725000L, SourceAccess.PUBLIC);
+            verifyConstant(cls, "BUILD_DATE", "2024-06-21T05:12:05Z", SourceAccess.PUBLIC);
+            verifyConstant(cls, "CUSTOM1", "Hello World", SourceAccess.PUBLIC);
+            verifyConstant(cls, "CUSTOM2", 17, SourceAccess.PUBLIC);
+            verifyConstant(cls, "CUSTOM3", true, SourceAccess.PUBLIC);
+        } catch (final ClassNotFoundException ex) {
+            throw new IOException(ex);
+        }
+
+        // Changing a value only changes the resource and does not require recompilation.
+        final BuildResult result2 = createGradleRunner(gradleVersion).withArguments("generateBuildConstants", "build",
+                                                                                    "-Pcustom1=Goodbye")
+                                                                     .build();
+        final BuildTask genTask = result2.task(":generateBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result2.getOutput()).isEqualTo(SUCCESS);
+
+        final BuildTask compileTask = result2.task(":compileJava");
+        assertThat(compileTask).isNotNull();
+        assertThat(compileTask.getOutcome()).as(result2.getOutput()).isEqualTo(UP_TO_DATE);
+
+        final BuildTask resourcesTask = result2.task(":processResources");
+        assertThat(resourcesTask).isNotNull();
+        assertThat(resourcesTask.getOutcome()).as(result2.getOutput()).isEqualTo(SUCCESS);
+
+        assertThat(Files.readString(actualResource, StandardCharsets.ISO_8859_1)).contains("CUSTOM1=Goodbye\n");
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testCompressedConstants(final String gradleVersion) throws IOException, ReflectiveOperationException {
+        copyProject("compressed-constants");
+
+        final BuildResult result = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask = result.task(":generateBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result.getOutput()).isEqualTo(SUCCESS);
+
+        final String license = "Licensed under the Apache License, Version 2.0. ".repeat(2000);
+        final Path classesDir = this.projectDir.resolve("build/classes/java/main");
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { classesDir.toUri().toURL() })) {
+            final Class<?> cls = loader.loadClass("org.cthing.test.Constants");
+            verifyConstant(cls, "SMALL", "Hello", SourceAccess.PUBLIC);
+            assertThat(cls).doesNotHaveDeclaredFields("LICENSE");
+
+            final Method licenseMethod = cls.getMethod("LICENSE");
+            assertThat(Modifier.isStatic(licenseMethod.getModifiers())).isTrue();
+            assertThat(licenseMethod.invoke(null)).isEqualTo(license);
+            assertThat(cls.getMethod("get", String.class).invoke(null, "LICENSE")).isEqualTo(license);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testNativeImageMetadata(final String gradleVersion) throws IOException {
+        copyProject("native-image");
+
+        final BuildResult result = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask = result.task(":generateBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result.getOutput()).isEqualTo(SUCCESS);
+
+        final String nativeImageDir = "META-INF/native-image/org.cthing.build-constants/org.cthing.test.Constants";
+        final Path propertiesFile = this.projectDir.resolve("build/generated-resources/build-constants/main")
+                                                   .resolve(nativeImageDir)
+                                                   .resolve("native-image.properties");
+        assertThat(propertiesFile).content(StandardCharsets.ISO_8859_1)
+                                  .contains("Args = --initialize-at-build-time=org.cthing.test.Constants,"
+                                                    + "org.cthing.test.Constants$NOTICE_Holder,"
+                                                    + "org.cthing.test.Constants$ConstantsMap,"
+                                                    + "org.cthing.test.Constants$BoxedValues\n");
+        assertThat(propertiesFile.resolveSibling("resource-config.json")).doesNotExist();
+
+        // The configuration is included in the resources of the source set.
+        assertThat(this.projectDir.resolve("build/resources/main").resolve(nativeImageDir)
+                                  .resolve("native-image.properties")).isRegularFile();
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testLookupMethods(final String gradleVersion) throws IOException, ReflectiveOperationException {
+        copyProject("lookup-methods");
+
+        final BuildResult result = createGradleRunner(gradleVersion).build();
+        verifyBuild(result);
+
+        final Class<?> cls = loadClass();
+        verifyConstant(cls, "BUILD_TIME", 1718946725000L, SourceAccess.PUBLIC);
+        verifyConstant(cls, "CUSTOM2", 17, SourceAccess.PUBLIC);
+
+        final Method getMethod = cls.getMethod("get", String.class);
+        assertThat(getMethod.invoke(null, "PROJECT_VERSION")).isEqualTo("1.2.3");
+        assertThat(getMethod.invoke(null, "BUILD_TIME")).isEqualTo(1718946725000L);
+        assertThat(getMethod.invoke(null, "CUSTOM1")).isEqualTo("Hello");
+        assertThat(getMethod.invoke(null, "CUSTOM2")).isEqualTo(17);
+        assertThat(getMethod.invoke(null, "UNKNOWN")).isNull();
+        assertThat(getMethod.invoke(null, (Object)null)).isNull();
+
+        final Method asMapMethod = cls.getMethod("asMap");
+        final Map<?, ?> map = (Map<?, ?>)asMapMethod.invoke(null);
+        assertThat(map).containsExactly(entry("PROJECT_NAME", "testProject"),
+                                        entry("PROJECT_VERSION", "1.2.3"),
+                                        entry("PROJECT_GROUP", "org.cthing"),
+                                        entry("BUILD_TIME", 1718946725000L),
+                                        entry("BUILD_DATE", "2024-06-21T05:12:05Z"),
+                                        entry("CUSTOM1", "Hello"),
+                                        entry("CUSTOM2", 17));
+        assertThat(asMapMethod.invoke(null)).isSameAs(map);
+        assertThatThrownBy(() -> map.remove("CUSTOM1")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testGitConstants(final String gradleVersion) throws IOException, InterruptedException {
+        copyProject("git-constants");
+
+        git("init", "-q");
+        git("symbolic-ref", "HEAD", "refs/heads/main");
+        git("add", "build.gradle.kts", "settings.gradle.kts");
+        git("commit", "-q", "-m", "Initial commit");
+        git("tag", "1.0.0");
+        Files.writeString(this.projectDir.resolve("README.txt"), "Test project\n", StandardCharsets.UTF_8);
+        git("add", "README.txt");
+        git("commit", "-q", "-m", "Add readme");
+        final String commit = git("rev-parse", "HEAD");
+
+        final BuildResult result1 = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask1 = result1.task(":generateBuildConstants");
+        assertThat(genTask1).isNotNull();
+        assertThat(genTask1.getOutcome()).as(result1.getOutput()).isEqualTo(SUCCESS);
+
+        final Class<?> cls1 = loadClass();
+        verifyConstant(cls1, "GIT_BRANCH", "main", SourceAccess.PUBLIC);
+        verifyConstant(cls1, "GIT_COMMIT", commit, SourceAccess.PUBLIC);
+        verifyConstant(cls1, "GIT_COMMIT_TIME", 1718946725000L, SourceAccess.PUBLIC);
+        verifyConstant(cls1, "GIT_DESCRIBE", "1.0.0-1-g" + commit.substring(0, 7), SourceAccess.PUBLIC);
+        verifyConstant(cls1, "GIT_DIRTY", false, SourceAccess.PUBLIC);
+
+        // Modifying a tracked file changes the Git state, so the constants must be regenerated.
+        Files.writeString(this.projectDir.resolve("README.txt"), "Modified\n", StandardCharsets.UTF_8);
+
+        final BuildResult result2 = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask2 = result2.task(":generateBuildConstants");
+        assertThat(genTask2).isNotNull();
+        assertThat(genTask2.getOutcome()).as(result2.getOutput()).isEqualTo(SUCCESS);
+
+        final Class<?> cls2 = loadClass();
+        verifyConstant(cls2, "GIT_DIRTY", true, SourceAccess.PUBLIC);
+
+        final BuildResult result3 = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask3 = result3.task(":generateBuildConstants");
+        assertThat(genTask3).isNotNull();
+        assertThat(genTask3.getOutcome()).as(result3.getOutput()).isEqualTo(UP_TO_DATE);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testDigestFiles(final String gradleVersion) throws IOException {
+        copyProject("digest-files");
+
+        final Path schemaFile = this.projectDir.resolve("db/schema.sql");
+        final Path migrationFile = this.projectDir.resolve("db/migrations/V1__add_email.sql");
+        Files.createDirectories(migrationFile.getParent());
+        Files.writeString(schemaFile, "CREATE TABLE users (id INTEGER PRIMARY KEY, name VARCHAR(100));\n",
+                          StandardCharsets.UTF_8);
+        Files.writeString(migrationFile, "ALTER TABLE users ADD COLUMN email VARCHAR(200);\n",
+                          StandardCharsets.UTF_8);
+
+        final BuildResult result1 = createGradleRunner(gradleVersion).build();
+        verifyBuild(result1);
+
+        // Only the changed file is hashed again, even though the build time change makes the task out of date.
+        Files.writeString(migrationFile, "ALTER TABLE users ADD COLUMN phone VARCHAR(20);\n",
+                          StandardCharsets.UTF_8);
+        final String buildFile = Files.readString(this.projectDir.resolve("build.gradle.kts"), StandardCharsets.UTF_8);
+        Files.writeString(this.projectDir.resolve("build.gradle.kts"),
+                          buildFile.replace("1718946725000", "1718946726000"), StandardCharsets.UTF_8);
+
+        final BuildResult result2 = createGradleRunner(gradleVersion).withArguments("generateBuildConstants", "build",
+                                                                                    "--info")
+                                                                     .build();
+        final BuildTask genTask = result2.task(":generateBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result2.getOutput()).isEqualTo(SUCCESS);
+        assertThat(result2.getOutput().lines().filter(line -> line.startsWith("Computing the SHA-256 digest of")))
+                .singleElement(STRING)
+                .endsWith("V1__add_email.sql");
+
+        final Class<?> cls = loadClass();
+        verifyConstant(cls, "DIGEST_SCHEMA_SQL", "191c943fd89b72c8ed0594e209addf79cdda96967bbd2f057c10713771983c50",
+                       SourceAccess.PUBLIC);
+        verifyConstant(cls, "DIGEST_MIGRATIONS_V1__ADD_EMAIL_SQL",
+                       "2422eb1a7f05bc09a105ceeb61894c1275afa5f278fc419163be712fbdaca385", SourceAccess.PUBLIC);
+
+        // A rewrite that preserves the size and modification time of a file is still detected.
+        final FileTime migrationTime = Files.getLastModifiedTime(migrationFile);
+        Files.writeString(migrationFile, "ALTER TABLE users ADD COLUMN title VARCHAR(20);\n",
+                          StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(migrationFile, migrationTime);
+
+        final BuildResult result3 = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask3 = result3.task(":generateBuildConstants");
+        assertThat(genTask3).isNotNull();
+        assertThat(genTask3.getOutcome()).as(result3.getOutput()).isEqualTo(SUCCESS);
+
+        final Class<?> cls3 = loadClass();
+        verifyConstant(cls3, "DIGEST_MIGRATIONS_V1__ADD_EMAIL_SQL",
+                       "c8240f9833d006c94ce46ddce19116d3c05d88e031f3376a9402e6f95d24c7c2", SourceAccess.PUBLIC);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testVersionCatalog(final String gradleVersion) throws IOException {
+        copyProject("version-catalog");
+
+        final BuildResult result1 = createGradleRunner(gradleVersion).build();
+        verifyBuild(result1);
+
+        // Changing the content of the catalog regenerates the constants.
+        final Path catalogFile = this.projectDir.resolve("gradle/libs.versions.toml");
+        final String catalog = Files.readString(catalogFile, StandardCharsets.UTF_8);
+        Files.writeString(catalogFile, catalog.replace("5.10.2", "5.11.0"), StandardCharsets.UTF_8);
+
+        final BuildResult result2 = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask2 = result2.task(":generateBuildConstants");
+        assertThat(genTask2).isNotNull();
+        assertThat(genTask2.getOutcome()).as(result2.getOutput()).isEqualTo(SUCCESS);
+
+        final Class<?> cls = loadClass();
+        verifyConstant(cls, "VERSION_JUNIT", "5.11.0", SourceAccess.PUBLIC);
+        verifyConstant(cls, "LIBRARY_JUNIT_API", "org.junit.jupiter:junit-jupiter-api:5.11.0", SourceAccess.PUBLIC);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testDependencyVersions(final String gradleVersion) throws IOException {
+        copyProject("dependency-versions");
+
+        // The version of lib-b is raised from the declared version by the dependency of lib-a.
+        final BuildResult result1 = createGradleRunner(gradleVersion).build();
+        verifyBuild(result1);
+
+        final BuildResult result2 = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask2 = result2.task(":generateBuildConstants");
+        assertThat(genTask2).isNotNull();
+        assertThat(genTask2.getOutcome()).as(result2.getOutput()).isEqualTo(UP_TO_DATE);
+
+        // Changing the resolved version of a requested dependency regenerates the constants.
+        final Path buildFile = this.projectDir.resolve("build.gradle.kts");
+        final String build = Files.readString(buildFile, StandardCharsets.UTF_8);
+        Files.writeString(buildFile, build.replace("lib-b:1.0.0", "lib-b:1.2.0"), StandardCharsets.UTF_8);
+
+        final BuildResult result3 = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask3 = result3.task(":generateBuildConstants");
+        assertThat(genTask3).isNotNull();
+        assertThat(genTask3.getOutcome()).as(result3.getOutput()).isEqualTo(SUCCESS);
+
+        final Class<?> cls = loadClass();
+        verifyConstant(cls, "DEPENDENCY_LIB_A", "1.0.0", SourceAccess.PUBLIC);
+        verifyConstant(cls, "DEPENDENCY_LIB_B", "1.2.0", SourceAccess.PUBLIC);
+
+        // Modules with the same name in different groups are distinguished by their groups.
+        verifyConstant(cls, "DEPENDENCY_ORG_CTHING_TEST_LIB_C", "1.0.0", SourceAccess.PUBLIC);
+        verifyConstant(cls, "DEPENDENCY_ORG_CTHING_OTHER_LIB_C", "2.0.0", SourceAccess.PUBLIC);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testUntrackedBuildFiles(final String gradleVersion) throws IOException {
+        copyProject("untracked-build-files");
+
+        final BuildResult result1 = createGradleRunner(gradleVersion).build();
+        verifyBuild(result1);
+
+        // Changes to the build files that do not affect the constants leave the task up-to-date.
+        final Path buildFile = this.projectDir.resolve("build.gradle.kts");
+        Files.writeString(buildFile, "\n// Unrelated change\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        Files.writeString(this.projectDir.resolve("gradle.properties"), "org.gradle.caching=false\n",
+                          StandardCharsets.UTF_8);
+
+        final BuildResult result2 = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask2 = result2.task(":generateBuildConstants");
+        assertThat(genTask2).isNotNull();
+        assertThat(genTask2.getOutcome()).as(result2.getOutput()).isEqualTo(UP_TO_DATE);
+
+        // Changes to the values of the constants regenerate the constants.
+        final String buildScript = Files.readString(buildFile, StandardCharsets.UTF_8);
+        Files.writeString(buildFile, buildScript.replace("1.2.3", "1.2.4"), StandardCharsets.UTF_8);
+
+        final BuildResult result3 = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask3 = result3.task(":generateBuildConstants");
+        assertThat(genTask3).isNotNull();
+        assertThat(genTask3.getOutcome()).as(result3.getOutput()).isEqualTo(SUCCESS);
+        verifyConstant(loadClass(), "PROJECT_VERSION", "1.2.4", SourceAccess.PUBLIC);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testConfigurationCache(final String gradleVersion) throws IOException {
+        copyProject("public-access");
+
+        final BuildResult result1 = createGradleRunner(gradleVersion).withArguments("generateBuildConstants", "build",
+                                                                                    "--configuration-cache")
+                                                                     .build();
+        verifyBuild(result1);
+        assertThat(result1.getOutput()).contains("Configuration cache entry stored.");
+
+        final BuildResult result2 = createGradleRunner(gradleVersion).withArguments("generateBuildConstants", "build",
+                                                                                    "--configuration-cache")
+                                                                     .build();
+        assertThat(result2.getOutput()).contains("Configuration cache entry reused.");
+        final BuildTask genTask = result2.task(":generateBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result2.getOutput()).isEqualTo(UP_TO_DATE);
+    }
+
+    @Test
+    public void testIsolatedProjects() throws IOException {
+        copyProject("isolated-projects");
+
+        final GradleRunner runner = createGradleRunner(GradleVersion.current().getVersion()).withArguments("build");
+
+        final BuildResult result1 = runner.build();
+        final BuildTask genTask1 = result1.task(":sub:generateBuildConstants");
+        assertThat(genTask1).isNotNull();
+        assertThat(genTask1.getOutcome()).as(result1.getOutput()).isEqualTo(SUCCESS);
+        assertThat(result1.getOutput()).contains("Configuration cache entry stored.");
+
+        final Path actualSource = this.projectDir.resolve("sub/build/generated-src/build-constants/main/org/cthing/test/Constants.java");
+        assertThat(actualSource).hasSameTextualContentAs(this.projectDir.resolve("Constants.java"),
+                                                         StandardCharsets.UTF_8);
+
+        final BuildResult result2 = runner.build();
+        assertThat(result2.getOutput()).contains("Configuration cache entry reused.");
+        final BuildTask genTask2 = result2.task(":sub:generateBuildConstants");
+        assertThat(genTask2).isNotNull();
+        assertThat(genTask2.getOutcome()).as(result2.getOutput()).isEqualTo(UP_TO_DATE);
+    }
+
+    @Test
+    public void testIsolatedProjectsRootInfo() throws IOException {
+        copyProject("isolated-projects-root-info");
+
+        final BuildResult result = createGradleRunner(GradleVersion.current().getVersion()).withArguments("build")
+                                                                                            .build();
+        final BuildTask genTask = result.task(":sub:generateBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result.getOutput()).isEqualTo(SUCCESS);
+
+        // The group and version set only by the root build script are not available to the subproject.
+        assertThat(result.getOutput()).contains("The group of project :sub is not set",
+                                                "The version of project :sub is not set");
+        final Path actualSource = this.projectDir.resolve("sub/build/generated-src/build-constants/main/org/cthing/test/Constants.java");
+        assertThat(actualSource).hasSameTextualContentAs(this.projectDir.resolve("Constants.java"),
+                                                         StandardCharsets.UTF_8);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testMultiProject(final String gradleVersion) throws IOException {
+        copyProject("multi-project");
+
+        final BuildResult result = createGradleRunner(gradleVersion).withArguments("build").build();
+        for (final String app : List.of("app1", "app2")) {
+            final BuildTask genTask = result.task(":" + app + ":generateBuildConstants");
+            assertThat(genTask).isNotNull();
+            assertThat(genTask.getOutcome()).as(result.getOutput()).isEqualTo(SUCCESS);
+        }
+
+        final Class<?> cls1 = loadClass("app1", "org.cthing.app1.Constants");
+        final Class<?> cls2 = loadClass("app2", "org.cthing.app2.Constants");
+        for (final Class<?> cls : List.of(cls1, cls2)) {
+            verifyConstant(cls, "PROJECT_NAME", "testProject", SourceAccess.PUBLIC);
+            verifyConstant(cls, "PROJECT_VERSION", "1.2.3", SourceAccess.PUBLIC);
+            verifyConstant(cls, "PROJECT_GROUP", "org.cthing", SourceAccess.PUBLIC);
+        }
+
+        // All projects in the build report the same build time.
+        try {
+            final long buildTime = cls1.getField("BUILD_TIME").getLong(null);
+            verifyConstant(cls2, "BUILD_TIME", buildTime, SourceAccess.PUBLIC);
+        } catch (final ReflectiveOperationException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testSourceSets(final String gradleVersion) throws IOException {
+        copyProject("source-sets");
+
+        // The test source set only contains the generated constants, which Gradle 9 reports as having no tests to run,
+        // so the test task is skipped and the test classes are built explicitly.
+        final BuildResult result = createGradleRunner(gradleVersion).withArguments("build", "testClasses", "-x", "test", "--info").build();
+        verifyBuild(result);
+
+        final BuildTask genTask = result.task(":generateTestBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result.getOutput()).isEqualTo(SUCCESS);
+
+        final Path actualSource = this.projectDir.resolve("build/generated-src/build-constants/test/org/cthing/test/TestConstants.java");
+        assertThat(actualSource).hasSameTextualContentAs(this.projectDir.resolve("TestConstants.java"),
+                                                         StandardCharsets.UTF_8);
+        assertThat(this.projectDir.resolve("build/classes/java/test/org/cthing/test/TestConstants.class")).isRegularFile();
+
+        // The shared deferred constant is resolved once for both tasks.
+        assertThat(result.getOutput().lines().filter(line -> line.startsWith("Resolved deferred constant TOOL_VERSION")))
+                .hasSize(1);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testSourceDateEpoch(final String gradleVersion) throws IOException {
+        copyProject("source-date-epoch");
+
+        final Map<String, String> environment = new HashMap<>(System.getenv());
+        environment.put("SOURCE_DATE_EPOCH", "1718946725");
+
+        final BuildResult result1 = createGradleRunner(gradleVersion).withEnvironment(environment).build();
+        verifyBuild(result1);
+
+        final Class<?> cls = loadClass();
+        verifyConstant(cls, "BUILD_TIME", 1718946725000L, SourceAccess.PUBLIC);
+        verifyConstant(cls, "BUILD_DATE", "2024-06-21T05:12:05Z", SourceAccess.PUBLIC);
+
+        final BuildResult result2 = createGradleRunner(gradleVersion).withEnvironment(environment).build();
+        final BuildTask genTask = result2.task(":generateBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result2.getOutput()).isEqualTo(UP_TO_DATE);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testRoundedBuildTime(final String gradleVersion) throws IOException, ReflectiveOperationException {
+        copyProject("rounded-build-time");
+
+        final long before = Instant.now().truncatedTo(ChronoUnit.DAYS).toEpochMilli();
+        final BuildResult result1 = createGradleRunner(gradleVersion).build();
+        final long after = Instant.now().truncatedTo(ChronoUnit.DAYS).toEpochMilli();
+        final BuildTask genTask = result1.task(":generateBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result1.getOutput()).isEqualTo(SUCCESS);
+
+        final Class<?> cls = loadClass();
+        final Field buildTimeField = cls.getDeclaredField("BUILD_TIME");
+        assertThat(buildTimeField.get(null)).isIn(before, after);
+        verifyConstant(cls, "BUILD_DATE", Instant.ofEpochMilli(buildTimeField.getLong(null)).toString(), SourceAccess.PUBLIC);
+
+        // Units longer than a day cannot be used to truncate an instant.
+        final BuildResult result2 = createGradleRunner(gradleVersion).withArguments("generateBuildConstants",
+                                                                                     "-Pgranularity=WEEKS")
+                                                                     .buildAndFail();
+        assertThat(result2.getOutput()).contains("Unsupported build time granularity WEEKS");
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testLastCommitBuildTime(final String gradleVersion) throws IOException, InterruptedException {
+        copyProject("last-commit");
+
+        git("init", "-q");
+        git("add", "build.gradle.kts", "settings.gradle.kts");
+        git("commit", "-q", "-m", "Initial commit");
+
+        final BuildResult result1 = createGradleRunner(gradleVersion).build();
+        verifyBuild(result1);
+
+        final Class<?> cls = loadClass();
+        verifyConstant(cls, "BUILD_TIME", Long.parseLong(git("log", "-1", "--format=%ct")) * 1000L, SourceAccess.PUBLIC);
+
+        // The build time only changes with a new commit, so the task is up-to-date.
+        final BuildResult result2 = createGradleRunner(gradleVersion).build();
+        final BuildTask genTask = result2.task(":generateBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result2.getOutput()).isEqualTo(UP_TO_DATE);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testRelocatedBuildCache(final String gradleVersion) throws IOException {
+        final Path cacheDir = Files.createTempDirectory(BASE_DIR, "cache");
+        final String cacheArg = "-PbuildCacheDir=" + cacheDir;
+
+        copyProject("build-cache");
+
+        final BuildResult result1 = createGradleRunner(gradleVersion)
+                .withArguments("generateBuildConstants", "build", "--build-cache", cacheArg)
+                .build();
+        verifyBuild(result1);
+
+        this.projectDir = Files.createTempDirectory(BASE_DIR, "relocated");
+        copyProject("build-cache");
+
+        final BuildResult result2 = createGradleRunner(gradleVersion)
+                .withArguments("generateBuildConstants", "build", "--build-cache", cacheArg)
+                .build();
+        final BuildTask genTask = result2.task(":generateBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result2.getOutput()).isEqualTo(FROM_CACHE);
+
+        final Path actualSource = this.projectDir.resolve("build/generated-src/build-constants/main/org/cthing/test/Constants.java");
+        assertThat(actualSource).hasSameTextualContentAs(this.projectDir.resolve("Constants.java"),
+                                                         StandardCharsets.UTF_8);
+    }
+
+    @ParameterizedTest
+    @MethodSource("gradleVersionProvider")
+    public void testUnchangedNotRewritten(final String gradleVersion) throws IOException {
+        copyProject("public-access");
+
+        final BuildResult result1 = createGradleRunner(gradleVersion).build();
+        verifyBuild(result1);
+
+        final Path actualSource = this.projectDir.resolve("build/generated-src/build-constants/main/org/cthing/test/Constants.java");
+        final FileTime modifiedTime = Files.getLastModifiedTime(actualSource);
+
+        final BuildResult result2 = createGradleRunner(gradleVersion).withArguments("generateBuildConstants",
+                                                                                    "--rerun-tasks").build();
+        final BuildTask genTask = result2.task(":generateBuildConstants");
+        assertThat(genTask).isNotNull();
+        assertThat(genTask.getOutcome()).as(result2.getOutput()).isEqualTo(UP_TO_DATE);
+        assertThat(Files.getLastModifiedTime(actualSource)).isEqualTo(modifiedTime);
+    }
+
     private void copyProject(final String projectName) throws IOException {
         final URL projectUrl = getClass().getResource("/" + projectName);
         assertThat(projectUrl).isNotNull();
         PathUtils.copyDirectory(Path.of(projectUrl.getPath()), this.projectDir);
     }
 
+    /**
+     * Runs git in the test project directory with fixed author and committer information, so that the commits
+     * created are the same for every run.
+     */
+    private String git(final String... args) throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>(List.of("git", "-c", "user.name=Test", "-c", "user.email=test@cthing.com",
+                                                             "-c", "commit.gpgsign=false", "-c", "tag.gpgsign=false"));
+        command.addAll(List.of(args));
+        final ProcessBuilder builder = new ProcessBuilder(command).directory(this.projectDir.toFile())
+                                                                  .redirectErrorStream(true);
+        builder.environment().put("GIT_AUTHOR_DATE", "1718946725 +0000");
+        builder.environment().put("GIT_COMMITTER_DATE", "1718946725 +0000");
+        final Process process = builder.start();
+        final String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        assertThat(process.waitFor()).as(output).isZero();
+        return output;
+    }
+
     private GradleRunner createGradleRunner(final String gradleVersion) {
         return GradleRunner.create()
                            .withProjectDir(this.projectDir.toFile())
@@ -192,9 +1017,17 @@ public class PluginIntegTest {
     }
 
     private Class<?> loadClass() throws IOException {
-        final Path classesDir = this.projectDir.resolve("build/classes/java/main");
+        return loadClass("org.cthing.test.Constants");
+    }
+
+    private Class<?> loadClass(final String classname) throws IOException {
+        return loadClass(".", classname);
+    }
+
+    private Class<?> loadClass(final String subprojectDir, final String classname) throws IOException {
+        final Path classesDir = this.projectDir.resolve(subprojectDir).resolve("build/classes/java/main");
         try (URLClassLoader loader = new URLClassLoader(new URL[] { classesDir.toUri().toURL() })) {
-            return loader.loadClass("org.cthing.test.Constants");
+            return loader.loadClass(classname);
         } catch (final ClassNotFoundException ex) {
             throw new IOException(ex);
         }
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.buildconstants;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+
+public class VersionCatalogTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testSimpleEntries() throws IOException {
+        final VersionCatalog catalog = read("""
+                # Comment
+                [versions]
+                junit = "5.10.2"   # Trailing comment
+                'java' = '17'
+                "kotlin-lang" = "2.0.0"
+
+                [libraries]
+                commons-io = "commons-io:commons-io:2.16.1"
+                junit-api = { module = "org.junit.jupiter:junit-jupiter-api", version.ref = "junit" }
+                guava = { group = "com.google.guava", name = "guava", version = "33.2.1-jre" }
+                slf4j = { module = "org.slf4j:slf4j-api" }
+                """);
+
+        assertThat(catalog.versions()).containsExactly(entry("java", "17"),
+                                                       entry("junit", "5.10.2"),
+                                                       entry("kotlin-lang", "2.0.0"));
+        assertThat(catalog.libraries()).containsExactly(entry("commons-io", "commons-io:commons-io:2.16.1"),
+                                                        entry("guava", "com.google.guava:guava:33.2.1-jre"),
+                                                        entry("junit-api", "org.junit.jupiter:junit-jupiter-api:5.10.2"),
+                                                        entry("slf4j", "org.slf4j:slf4j-api"));
+    }
+
+    @Test
+    public void testRichVersions() throws IOException {
+        final VersionCatalog catalog = read("""
+                [versions]
+                groovy = { strictly = "[3.0, 4.0[", prefer = "3.0.9", reject = ["3.0.1", "3.0.2"] }
+                guava = { require = "33.2.1-jre", reject = [] }
+                jackson = { prefer = "2.17.1", rejectAll = false }
+                slf4j = { strictly = "2.0.13", reject = [ "2.0.0" , "2.0.1", ] }
+
+                [libraries]
+                commons-lang = { module = "org.apache.commons:commons-lang3", version = { strictly = "3.14.0", rejectAll = true } }
+                groovy = { module = "org.apache.groovy:groovy", version = { ref = "groovy" } }
+                """);
+
+        assertThat(catalog.versions()).containsExactly(entry("groovy", "[3.0, 4.0["),
+                                                       entry("guava", "33.2.1-jre"),
+                                                       entry("jackson", "2.17.1"),
+                                                       entry("slf4j", "2.0.13"));
+        assertThat(catalog.libraries()).containsExactly(entry("commons-lang", "org.apache.commons:commons-lang3:3.14.0"),
+                                                        entry("groovy", "org.apache.groovy:groovy:[3.0, 4.0["));
+    }
+
+    @Test
+    public void testDottedKeys() throws IOException {
+        final VersionCatalog catalog = read("""
+                [versions]
+                groovy.strictly = "3.0.9"
+                groovy.reject = ["3.0.8"]
+                "my.tool" = "1.0"
+                kotlin = "2.0.0"
+
+                [libraries]
+                groovy-core.module = "org.apache.groovy:groovy"
+                groovy-core.version.ref = "groovy"
+                kotlin-stdlib.group = "org.jetbrains.kotlin"
+                kotlin-stdlib.name = "kotlin-stdlib"
+                kotlin-stdlib.version = { ref = "kotlin" }
+                """);
+
+        assertThat(catalog.versions()).containsExactly(entry("groovy", "3.0.9"),
+                                                       entry("kotlin", "2.0.0"),
+                                                       entry("my.tool", "1.0"));
+        assertThat(catalog.libraries()).containsExactly(entry("groovy-core", "org.apache.groovy:groovy:3.0.9"),
+                                                        entry("kotlin-stdlib", "org.jetbrains.kotlin:kotlin-stdlib:2.0.0"));
+    }
+
+    @Test
+    public void testEscapes() throws IOException {
+        final VersionCatalog catalog = read("""
+                [versions]
+                escaped = "1.0\\t\\u0041\\"\\\\"
+                literal = '1.0\\t'
+                """);
+
+        assertThat(catalog.versions()).containsExactly(entry("escaped", "1.0\tA\"\\"),
+                                                       entry("literal", "1.0\\t"));
+    }
+
+    @Test
+    public void testOtherTablesSkipped() throws IOException {
+        final VersionCatalog catalog = read("""
+                [versions]
+                junit = "5.10.2"
+
+                [bundles]
+                junit = [
+                    "junit-api",
+                ]
+
+                [plugins]
+                versions = { id = "com.github.ben-manes.versions", version = "0.51.0" }
+                """);
+
+        assertThat(catalog.versions()).containsExactly(entry("junit", "5.10.2"));
+        assertThat(catalog.libraries()).isEmpty();
+    }
+
+    @Test
+    public void testErrors() throws IOException {
+        assertThatThrownBy(() -> read("""
+                [versions]
+                junit = 5.10
+                """)).isInstanceOf(GradleException.class)
+                     .hasMessageContaining("Expected a string, boolean, array or inline table at line 2, column 9");
+
+        assertThatThrownBy(() -> read("""
+                [versions]
+                groovy = { strictly = "3.0.9", reject = ["3.0.8" }
+                """)).isInstanceOf(GradleException.class)
+                     .hasMessageContaining("Expected ',' or ']' at line 2");
+
+        assertThatThrownBy(() -> read("""
+                [versions]
+                groovy = "3.0.9"
+                groovy.strictly = "3.0.9"
+                """)).isInstanceOf(GradleException.class)
+                     .hasMessageContaining("Key groovy.strictly conflicts with the value of groovy at line 3");
+
+        assertThatThrownBy(() -> read("""
+                [versions]
+                groovy = "3.0.9"
+                groovy = "3.0.10"
+                """)).isInstanceOf(GradleException.class)
+                     .hasMessageContaining("Duplicate key groovy at line 3");
+
+        assertThatThrownBy(() -> read("""
+                [versions]
+                groovy = { rejectAll = true }
+                """)).isInstanceOf(GradleException.class)
+                     .hasMessageContaining("Version groovy in")
+                     .hasMessageEndingWith("does not specify a version");
+
+        assertThatThrownBy(() -> read("""
+                [versions]
+                groovy = true
+                """)).isInstanceOf(GradleException.class)
+                     .hasMessageEndingWith("must be a string or a table");
+
+        assertThatThrownBy(() -> read("""
+                [libraries]
+                groovy = { module = "org.apache.groovy:groovy", version.ref = "groovy" }
+                """)).isInstanceOf(GradleException.class)
+                     .hasMessageEndingWith("references unknown version groovy");
+    }
+
+    private VersionCatalog read(final String content) throws IOException {
+        final Path file = this.tempDir.resolve("libs.versions.toml");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return VersionCatalog.read(file);
+    }
+}
@@ -16,6 +16,7 @@ public final class Constants {
     public static final String CUSTOM1 = "Hello";
     public static final String CUSTOM2 = "World";
     public static final boolean CUSTOM3 = true;
+    public static final String ESCAPED = "Say \"hi\" C:\\temp\tTab\r\nLine\u0001";
     public static final long tuv = 2300L;
     public static final int xyz = 17;
 
@@ -16,5 +16,6 @@ tasks {
         additionalConstants.put("CUSTOM2", "World")
         additionalConstants.put("CUSTOM1", "Hello")
         additionalConstants.put("ABC", "def")
+        additionalConstants.put("ESCAPED", "Say \"hi\" C:\\temp\tTab\r\nLine\u0001")
     }
 }
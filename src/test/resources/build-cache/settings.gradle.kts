@@ -0,0 +1,7 @@
+rootProject.name = "testProject"
+
+buildCache {
+    local {
+        directory = providers.gradleProperty("buildCacheDir").get()
+    }
+}
@@ -0,0 +1,18 @@
+import org.cthing.gradle.plugins.buildconstants.OutputFormat
+
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+version = "1.2.3"
+group = "org.cthing"
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        buildTime = 1718946725000
+        outputFormat = OutputFormat.CLASS
+        additionalConstants.put("ESCAPED", "Say \"hi\" C:\\temp\tTab\r\nLine\u0001")
+    }
+}
@@ -0,0 +1,8 @@
+package org.cthing.test;
+
+public final class Info {
+
+    public static final String VERSION = Constants.PROJECT_VERSION;
+
+    private Info() { }
+}
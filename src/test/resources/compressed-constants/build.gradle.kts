@@ -0,0 +1,18 @@
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+version = "1.2.3"
+group = "org.cthing"
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        buildTime = 1718946725000
+        compressionThreshold = 1024
+        lookupMethods = true
+        additionalConstants.put("LICENSE", "Licensed under the Apache License, Version 2.0. ".repeat(2000))
+        additionalConstants.put("SMALL", "Hello")
+    }
+}
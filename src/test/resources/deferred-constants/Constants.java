@@ -0,0 +1,24 @@
+//
+// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
+//
+
+package org.cthing.test;
+
+@SuppressWarnings("all")
+public final class Constants {
+
+    public static final String PROJECT_NAME = "testProject";
+    public static final String PROJECT_VERSION = "1.2.3";
+    public static final String PROJECT_GROUP = "org.cthing";
+    public static final long BUILD_TIME = 1718946725000L;
+    public static final String BUILD_DATE = "2024-06-21T05:12:05Z";
+    public static final String BLOCKING_VALUE = "blocked";
+    public static final long CHECKSUM = 1234L;
+    public static final String CUSTOM1 = "Hello";
+    public static final boolean FAILING_VALUE = false;
+    public static final String QUEUED_VALUE = "not started";
+    public static final String SLOW_VALUE = "unknown";
+    public static final String TOOL_VERSION = "3.4.5";
+
+    private Constants() { }
+}
@@ -0,0 +1,82 @@
+import java.time.Duration
+
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+version = "1.2.3"
+group = "org.cthing"
+
+// Provides a value after a delay, optionally ignoring interruption like a read blocked on a hung process.
+abstract class TestValue : ValueSource<String, TestValue.Parameters> {
+    interface Parameters : ValueSourceParameters {
+        val result: Property<String>
+        val delayMillis: Property<Long>
+        val interruptible: Property<Boolean>
+    }
+
+    override fun obtain(): String? {
+        val delay = parameters.delayMillis.getOrElse(0L)
+        if (parameters.interruptible.getOrElse(true)) {
+            Thread.sleep(delay)
+        } else {
+            val end = System.nanoTime() + delay * 1_000_000L
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait()
+            }
+        }
+        return parameters.result.orNull ?: throw IllegalStateException("Tool not found")
+    }
+}
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        buildTime = 1718946725000
+        additionalConstants.put("CUSTOM1", "Hello")
+        deferredConstantsParallelism = 1
+        deferredConstants {
+            register("BLOCKING_VALUE") {
+                value = providers.of(TestValue::class) {
+                    parameters {
+                        result = "blocking"
+                        delayMillis = 3000L
+                        interruptible = false
+                    }
+                }
+                timeout = Duration.ofMillis(500)
+                fallbackValue = "blocked"
+            }
+            register("CHECKSUM") {
+                value = 1234L
+            }
+            register("FAILING_VALUE") {
+                value = providers.of(TestValue::class) {}
+                fallbackValue = false
+            }
+            register("QUEUED_VALUE") {
+                value = providers.of(TestValue::class) {
+                    parameters {
+                        result = "queued"
+                    }
+                }
+                timeout = Duration.ofMillis(1000)
+                fallbackValue = "not started"
+            }
+            register("SLOW_VALUE") {
+                value = providers.of(TestValue::class) {
+                    parameters {
+                        result = "slow"
+                        delayMillis = 60_000L
+                    }
+                }
+                timeout = Duration.ofMillis(4000)
+                fallbackValue = "unknown"
+            }
+            register("TOOL_VERSION") {
+                value = providers.fileContents(layout.projectDirectory.file("tool-version.txt")).asText
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+//
+// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
+//
+
+package org.cthing.test;
+
+@SuppressWarnings("all")
+public final class Constants {
+
+    public static final String PROJECT_NAME = "testProject";
+    public static final String PROJECT_VERSION = "1.2.3";
+    public static final String PROJECT_GROUP = "org.cthing";
+    public static final long BUILD_TIME = 1718946725000L;
+    public static final String BUILD_DATE = "2024-06-21T05:12:05Z";
+    public static final String DEPENDENCY_LIB_A = "1.0.0";
+    public static final String DEPENDENCY_LIB_B = "1.1.0";
+    public static final String DEPENDENCY_ORG_CTHING_OTHER_LIB_C = "2.0.0";
+    public static final String DEPENDENCY_ORG_CTHING_TEST_LIB_C = "1.0.0";
+
+    private Constants() { }
+}
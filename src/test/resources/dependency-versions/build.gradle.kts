@@ -0,0 +1,30 @@
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+version = "1.2.3"
+group = "org.cthing"
+
+repositories {
+    maven {
+        url = uri("repo")
+    }
+}
+
+dependencies {
+    runtimeOnly("org.cthing.test:lib-a:1.0.0")
+    runtimeOnly("org.cthing.test:lib-b:1.0.0")
+    runtimeOnly("org.cthing.test:lib-c:1.0.0")
+    runtimeOnly("org.cthing.other:lib-c:2.0.0")
+}
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        buildTime = 1718946725000
+        trackBuildFiles = false
+        dependencyVersions.addAll("org.cthing.test:lib-a", "org.cthing.test:lib-b", "org.cthing.test:lib-c",
+                                  "org.cthing.other:lib-c")
+    }
+}
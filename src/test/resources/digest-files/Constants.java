@@ -0,0 +1,19 @@
+//
+// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
+//
+
+package org.cthing.test;
+
+@SuppressWarnings("all")
+public final class Constants {
+
+    public static final String PROJECT_NAME = "testProject";
+    public static final String PROJECT_VERSION = "1.2.3";
+    public static final String PROJECT_GROUP = "org.cthing";
+    public static final long BUILD_TIME = 1718946725000L;
+    public static final String BUILD_DATE = "2024-06-21T05:12:05Z";
+    public static final String DIGEST_MIGRATIONS_V1__ADD_EMAIL_SQL = "adc8a445b54ae4b9d04d125f51ae07dfe46979b2bcf69a8f02a2efd6da116235";
+    public static final String DIGEST_SCHEMA_SQL = "191c943fd89b72c8ed0594e209addf79cdda96967bbd2f057c10713771983c50";
+
+    private Constants() { }
+}
@@ -0,0 +1,4 @@
+// With Isolated Projects enabled, the group and version set only for the root project are not available to
+// the subproject.
+version = "1.2.3"
+group = "org.cthing"
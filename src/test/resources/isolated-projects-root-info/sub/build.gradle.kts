@@ -0,0 +1,11 @@
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        buildTime = 1718946725000
+    }
+}
@@ -0,0 +1,3 @@
+rootProject.name = "testProject"
+
+include("sub")
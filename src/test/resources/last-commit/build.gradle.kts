@@ -0,0 +1,16 @@
+import org.cthing.gradle.plugins.buildconstants.BuildTimeStrategy
+
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+version = "1.2.3"
+group = "org.cthing"
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        buildTimeStrategy = BuildTimeStrategy.LAST_COMMIT
+    }
+}
@@ -0,0 +1,60 @@
+//
+// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
+//
+
+package org.cthing.test;
+
+@SuppressWarnings("all")
+public final class Constants {
+
+    public static final String PROJECT_NAME = "testProject";
+    public static final String PROJECT_VERSION = "1.2.3";
+    public static final String PROJECT_GROUP = "org.cthing";
+    public static final long BUILD_TIME = 1718946725000L;
+    public static final String BUILD_DATE = "2024-06-21T05:12:05Z";
+    public static final String CUSTOM1 = "Hello";
+    public static final int CUSTOM2 = 17;
+
+    public static Object get(final String name) {
+        if (name == null) {
+            return null;
+        }
+        switch (name) {
+            case "PROJECT_NAME": return PROJECT_NAME;
+            case "PROJECT_VERSION": return PROJECT_VERSION;
+            case "PROJECT_GROUP": return PROJECT_GROUP;
+            case "BUILD_TIME": return BoxedValues.BUILD_TIME;
+            case "BUILD_DATE": return BUILD_DATE;
+            case "CUSTOM1": return CUSTOM1;
+            case "CUSTOM2": return BoxedValues.CUSTOM2;
+            default: return null;
+        }
+    }
+
+    public static java.util.Map<String, Object> asMap() {
+        return ConstantsMap.MAP;
+    }
+
+    private static final class ConstantsMap {
+        static final java.util.Map<String, Object> MAP;
+
+        static {
+            final java.util.Map<String, Object> map = new java.util.LinkedHashMap<String, Object>();
+            map.put("PROJECT_NAME", PROJECT_NAME);
+            map.put("PROJECT_VERSION", PROJECT_VERSION);
+            map.put("PROJECT_GROUP", PROJECT_GROUP);
+            map.put("BUILD_TIME", BoxedValues.BUILD_TIME);
+            map.put("BUILD_DATE", BUILD_DATE);
+            map.put("CUSTOM1", CUSTOM1);
+            map.put("CUSTOM2", BoxedValues.CUSTOM2);
+            MAP = java.util.Collections.unmodifiableMap(map);
+        }
+    }
+
+    private static final class BoxedValues {
+        static final Long BUILD_TIME = Constants.BUILD_TIME;
+        static final Integer CUSTOM2 = Constants.CUSTOM2;
+    }
+
+    private Constants() { }
+}
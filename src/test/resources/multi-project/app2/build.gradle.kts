@@ -0,0 +1,10 @@
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.app2.Constants"
+    }
+}
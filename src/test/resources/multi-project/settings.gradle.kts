@@ -0,0 +1,3 @@
+rootProject.name = "testProject"
+
+include("app1", "app2")
@@ -0,0 +1,18 @@
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+version = "1.2.3"
+group = "org.cthing"
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        buildTime = 1718946725000
+        nativeImageMetadata = true
+        lookupMethods = true
+        compressionThreshold = 64
+        additionalConstants.put("NOTICE", "This product includes software developed by C Thing Software. ".repeat(4))
+    }
+}
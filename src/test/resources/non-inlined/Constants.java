@@ -0,0 +1,26 @@
+//
+// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
+//
+
+package org.cthing.test;
+
+@SuppressWarnings("all")
+public final class Constants {
+
+    public static final String PROJECT_NAME = "testProject";
+    public static final String PROJECT_VERSION;
+    public static final String PROJECT_GROUP = "org.cthing";
+    public static final long BUILD_TIME;
+    public static final String BUILD_DATE;
+    public static final String CUSTOM1 = "Hello";
+    public static final int CUSTOM2;
+
+    static {
+        PROJECT_VERSION = "1.2.3";
+        BUILD_TIME = 1718946725000L;
+        BUILD_DATE = "2024-06-21T05:12:05Z";
+        CUSTOM2 = 17;
+    }
+
+    private Constants() { }
+}
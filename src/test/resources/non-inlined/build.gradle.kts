@@ -0,0 +1,20 @@
+import org.cthing.gradle.plugins.buildconstants.ConstantsStyle
+
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+version = "1.2.3"
+group = "org.cthing"
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        buildTime = 1718946725000
+        constantsStyle = ConstantsStyle.NON_INLINED
+        additionalConstants.put("CUSTOM1", "Hello")
+        additionalConstants.put("CUSTOM2", 17)
+        stableConstants.add("CUSTOM1")
+    }
+}
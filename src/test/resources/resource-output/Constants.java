@@ -0,0 +1,41 @@
+//
+// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
+//
+
+package org.cthing.test;
+
+@SuppressWarnings("all")
+public final class Constants {
+
+    public static final String PROJECT_NAME;
+    public static final String PROJECT_VERSION;
+    public static final String PROJECT_GROUP;
+    public static final long BUILD_TIME;
+    public static final String BUILD_DATE;
+    public static final String CUSTOM1;
+    public static final int CUSTOM2;
+    public static final boolean CUSTOM3;
+
+    static {
+        final java.util.Properties values = new java.util.Properties();
+        try (java.io.InputStream ins = Constants.class.getResourceAsStream("Constants.properties")) {
+            if (ins == null) {
+                throw new IllegalStateException("Constants resource Constants.properties not found");
+            }
+            values.load(ins);
+        } catch (final java.io.IOException ex) {
+            throw new IllegalStateException("Could not load constants resource Constants.properties", ex);
+        }
+
+        PROJECT_NAME = values.getProperty("PROJECT_NAME");
+        PROJECT_VERSION = values.getProperty("PROJECT_VERSION");
+        PROJECT_GROUP = values.getProperty("PROJECT_GROUP");
+        BUILD_TIME = Long.parseLong(values.getProperty("BUILD_TIME"));
+        BUILD_DATE = values.getProperty("BUILD_DATE");
+        CUSTOM1 = values.getProperty("CUSTOM1");
+        CUSTOM2 = Integer.parseInt(values.getProperty("CUSTOM2"));
+        CUSTOM3 = Boolean.parseBoolean(values.getProperty("CUSTOM3"));
+    }
+
+    private Constants() { }
+}
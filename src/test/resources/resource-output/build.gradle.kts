@@ -0,0 +1,20 @@
+import org.cthing.gradle.plugins.buildconstants.OutputFormat
+
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+version = "1.2.3"
+group = "org.cthing"
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        buildTime = 1718946725000
+        outputFormat = OutputFormat.RESOURCE
+        additionalConstants.put("CUSTOM1", providers.gradleProperty("custom1").orElse("Hello World"))
+        additionalConstants.put("CUSTOM2", 17)
+        additionalConstants.put("CUSTOM3", true)
+    }
+}
@@ -0,0 +1,18 @@
+import org.cthing.gradle.plugins.buildconstants.BuildTimeStrategy
+import java.time.temporal.ChronoUnit
+
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+version = "1.2.3"
+group = "org.cthing"
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        buildTimeStrategy = BuildTimeStrategy.ROUNDED
+        buildTimeGranularity = ChronoUnit.valueOf(providers.gradleProperty("granularity").getOrElse("DAYS"))
+    }
+}
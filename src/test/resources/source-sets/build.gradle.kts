@@ -0,0 +1,29 @@
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+version = "1.2.3"
+group = "org.cthing"
+
+buildConstants {
+    sourceSets("test")
+    deferredConstants {
+        register("TOOL_VERSION") {
+            value = provider { "3.4.5" }
+        }
+    }
+}
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        buildTime = 1718946725000
+    }
+
+    named<org.cthing.gradle.plugins.buildconstants.BuildConstantsTask>("generateTestBuildConstants") {
+        classname = "org.cthing.test.TestConstants"
+        buildTime = 1718946725000
+        additionalConstants.put("FIXTURES", "db")
+    }
+}
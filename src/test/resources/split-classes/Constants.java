@@ -0,0 +1,15 @@
+//
+// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
+//
+
+package org.cthing.test;
+
+@SuppressWarnings("all")
+public final class Constants {
+
+    public static final String PROJECT_NAME = "testProject";
+    public static final String PROJECT_GROUP = "org.cthing";
+    public static final String CUSTOM1 = "Hello";
+
+    private Constants() { }
+}
@@ -0,0 +1,13 @@
+//
+// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
+//
+
+package org.cthing.test;
+
+@SuppressWarnings("all")
+public final class Errors {
+
+    public static final String ERROR1 = "Bad";
+
+    private Errors() { }
+}
@@ -0,0 +1,20 @@
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+version = "1.2.3"
+group = "org.cthing"
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        volatileClassname = "org.cthing.test.VolatileConstants"
+        buildTime = 1718946725000
+        additionalConstants.put("CUSTOM1", "Hello")
+        additionalConstants.put("CUSTOM2", 17)
+        additionalConstants.put("ERROR1", "Bad")
+        stableConstants.add("CUSTOM1")
+        constantGroups.put("org.cthing.test.Errors", listOf("ERROR1"))
+    }
+}
@@ -0,0 +1,50 @@
+//
+// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
+//
+
+package org.cthing.test;
+
+@SuppressWarnings("all")
+public final class Constants {
+
+    public static final String PROJECT_NAME = "testProject";
+    public static final String PROJECT_VERSION = "1.2.3";
+    public static final String PROJECT_GROUP = "org.cthing";
+
+    public static Object get(final String name) {
+        if (name == null) {
+            return null;
+        }
+        switch (name) {
+            case "PROJECT_NAME": return PROJECT_NAME;
+            case "PROJECT_VERSION": return PROJECT_VERSION;
+            case "PROJECT_GROUP": return PROJECT_GROUP;
+            default: break;
+        }
+        Object value = ConstantsPart2.get(name);
+        if (value == null) {
+            value = ConstantsPart3.get(name);
+        }
+        return value;
+    }
+
+    public static java.util.Map<String, Object> asMap() {
+        return ConstantsMap.MAP;
+    }
+
+    private static final class ConstantsMap {
+        static final java.util.Map<String, Object> MAP;
+
+        static {
+            final java.util.Map<String, Object> map = new java.util.LinkedHashMap<String, Object>();
+            map.put("PROJECT_NAME", PROJECT_NAME);
+            map.put("PROJECT_VERSION", PROJECT_VERSION);
+            map.put("PROJECT_GROUP", PROJECT_GROUP);
+            map.putAll(ConstantsPart2.asMap());
+            map.putAll(ConstantsPart3.asMap());
+            MAP = java.util.Collections.unmodifiableMap(map);
+        }
+    }
+
+    private Constants() { }
+}
@@ -0,0 +1,47 @@
+//
+// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
+//
+
+package org.cthing.test;
+
+@SuppressWarnings("all")
+public final class ConstantsPart2 {
+
+    public static final long BUILD_TIME = 1718946725000L;
+    public static final String BUILD_DATE = "2024-06-21T05:12:05Z";
+    public static final String CUSTOM1 = "Hello";
+
+    public static Object get(final String name) {
+        if (name == null) {
+            return null;
+        }
+        switch (name) {
+            case "BUILD_TIME": return BoxedValues.BUILD_TIME;
+            case "BUILD_DATE": return BUILD_DATE;
+            case "CUSTOM1": return CUSTOM1;
+            default: return null;
+        }
+    }
+
+    public static java.util.Map<String, Object> asMap() {
+        return ConstantsMap.MAP;
+    }
+
+    private static final class ConstantsMap {
+        static final java.util.Map<String, Object> MAP;
+
+        static {
+            final java.util.Map<String, Object> map = new java.util.LinkedHashMap<String, Object>();
+            map.put("BUILD_TIME", BoxedValues.BUILD_TIME);
+            map.put("BUILD_DATE", BUILD_DATE);
+            map.put("CUSTOM1", CUSTOM1);
+            MAP = java.util.Collections.unmodifiableMap(map);
+        }
+    }
+
+    private static final class BoxedValues {
+        static final Long BUILD_TIME = ConstantsPart2.BUILD_TIME;
+    }
+
+    private ConstantsPart2() { }
+}
@@ -0,0 +1,41 @@
+//
+// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
+//
+
+package org.cthing.test;
+
+@SuppressWarnings("all")
+public final class ConstantsPart3 {
+
+    public static final int CUSTOM2 = 17;
+
+    public static Object get(final String name) {
+        if (name == null) {
+            return null;
+        }
+        switch (name) {
+            case "CUSTOM2": return BoxedValues.CUSTOM2;
+            default: return null;
+        }
+    }
+
+    public static java.util.Map<String, Object> asMap() {
+        return ConstantsMap.MAP;
+    }
+
+    private static final class ConstantsMap {
+        static final java.util.Map<String, Object> MAP;
+
+        static {
+            final java.util.Map<String, Object> map = new java.util.LinkedHashMap<String, Object>();
+            map.put("CUSTOM2", BoxedValues.CUSTOM2);
+            MAP = java.util.Collections.unmodifiableMap(map);
+        }
+    }
+
+    private static final class BoxedValues {
+        static final Integer CUSTOM2 = ConstantsPart3.CUSTOM2;
+    }
+
+    private ConstantsPart3() { }
+}
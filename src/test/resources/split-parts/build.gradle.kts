@@ -0,0 +1,18 @@
+plugins {
+    java
+    id("org.cthing.build-constants")
+}
+
+version = "1.2.3"
+group = "org.cthing"
+
+tasks {
+    generateBuildConstants {
+        classname = "org.cthing.test.Constants"
+        buildTime = 1718946725000
+        lookupMethods = true
+        maxConstantsPerClass = 3
+        additionalConstants.put("CUSTOM1", "Hello")
+        additionalConstants.put("CUSTOM2", 17)
+    }
+}
@@ -0,0 +1,22 @@
+//
+// DO NOT EDIT - File generated by the org.cthing.build-constants Gradle plugin.
+//
+
+package org.cthing.test;
+
+@SuppressWarnings("all")
+public final class Constants {
+
+    public static final String PROJECT_NAME = "testProject";
+    public static final String PROJECT_VERSION = "1.2.3";
+    public static final String PROJECT_GROUP = "org.cthing";
+    public static final long BUILD_TIME = 1718946725000L;
+    public static final String BUILD_DATE = "2024-06-21T05:12:05Z";
+    public static final String VERSION_GUAVA = "33.2.1-jre";
+    public static final String VERSION_JAVA = "17";
+    public static final String VERSION_JUNIT = "5.10.2";
+    public static final String LIBRARY_GUAVA = "com.google.guava:guava:33.2.1-jre";
+    public static final String LIBRARY_JUNIT_API = "org.junit.jupiter:junit-jupiter-api:5.10.2";
+
+    private Constants() { }
+}